@@ -0,0 +1,65 @@
+package tn.zeros.zchess.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import tn.zeros.zchess.core.logic.generation.LegalMoveFilter;
+import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.core.util.PrecomputedMoves;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attack detection and magic bitboard lookups for every square of every corpus position.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttackBenchmark {
+    @Param({BenchmarkPositions.STANDARD, BenchmarkPositions.WAC})
+    public String corpus;
+
+    private BoardState[] boards;
+
+    @Setup
+    public void setup() {
+        boards = BenchmarkPositions.boards(corpus);
+    }
+
+    @Benchmark
+    public long getAttackersBitboard() {
+        long attackers = 0;
+        for (BoardState state : boards) {
+            for (int square = 0; square < 64; square++) {
+                attackers ^= LegalMoveFilter.getAttackersBitboard(state, square, true);
+                attackers ^= LegalMoveFilter.getAttackersBitboard(state, square, false);
+            }
+        }
+        return attackers;
+    }
+
+    @Benchmark
+    public long magicRookAttacks() {
+        long attacks = 0;
+        for (BoardState state : boards) {
+            long blockers = state.getAllPieces();
+            for (int square = 0; square < 64; square++) {
+                attacks ^= PrecomputedMoves.getMagicRookAttack(square, blockers);
+            }
+        }
+        return attacks;
+    }
+
+    @Benchmark
+    public long magicBishopAttacks() {
+        long attacks = 0;
+        for (BoardState state : boards) {
+            long blockers = state.getAllPieces();
+            for (int square = 0; square < 64; square++) {
+                attacks ^= PrecomputedMoves.getMagicBishopAttack(square, blockers);
+            }
+        }
+        return attacks;
+    }
+}
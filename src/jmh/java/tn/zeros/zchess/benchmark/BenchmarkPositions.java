@@ -0,0 +1,58 @@
+package tn.zeros.zchess.benchmark;
+
+import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.core.service.FenService;
+import tn.zeros.zchess.core.util.ChessConstants;
+import tn.zeros.zchess.engine.harness.TestPosition;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * FEN corpora shared by the benchmarks: the standard perft positions and the WAC test suite.
+ */
+final class BenchmarkPositions {
+    static final String STANDARD = "standard";
+    static final String WAC = "wac";
+
+    private static final Path WAC_PATH = Path.of("test_suites/WAC.epd");
+
+    private static final List<String> STANDARD_FENS = List.of(
+            ChessConstants.DEFAULT_FEN,
+            ChessConstants.POSITION_2_FEN,
+            ChessConstants.POSITION_3_FEN,
+            ChessConstants.POSITION_4_FEN,
+            ChessConstants.POSITION_5_FEN
+    );
+
+    private BenchmarkPositions() {
+    }
+
+    static List<String> fens(String corpus) {
+        return switch (corpus) {
+            case STANDARD -> STANDARD_FENS;
+            case WAC -> readEpd(WAC_PATH);
+            default -> throw new IllegalArgumentException("Unknown corpus: " + corpus);
+        };
+    }
+
+    static BoardState[] boards(String corpus) {
+        return fens(corpus).stream()
+                .map(fen -> FenService.parseFEN(fen, new BoardState()))
+                .toArray(BoardState[]::new);
+    }
+
+    private static List<String> readEpd(Path path) {
+        try {
+            return Files.readAllLines(path).stream()
+                    .filter(line -> !line.isBlank())
+                    .map(line -> TestPosition.fromEpd(line).fen())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Benchmarks must run from the project root to find " + path, e);
+        }
+    }
+}
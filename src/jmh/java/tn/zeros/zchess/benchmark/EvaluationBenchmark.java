@@ -0,0 +1,37 @@
+package tn.zeros.zchess.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.engine.evaluate.EvaluationService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Static evaluation of every corpus position.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark {
+    @Param({BenchmarkPositions.STANDARD, BenchmarkPositions.WAC})
+    public String corpus;
+
+    private BoardState[] boards;
+
+    @Setup
+    public void setup() {
+        boards = BenchmarkPositions.boards(corpus);
+    }
+
+    @Benchmark
+    public int evaluate() {
+        int total = 0;
+        for (BoardState state : boards) {
+            total += EvaluationService.evaluate(state);
+        }
+        return total;
+    }
+}
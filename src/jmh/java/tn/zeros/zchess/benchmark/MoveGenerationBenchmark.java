@@ -0,0 +1,78 @@
+package tn.zeros.zchess.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tn.zeros.zchess.core.logic.generation.MoveGenerator;
+import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.core.service.MoveExecutor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move generation and make/unmake over a whole corpus per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+    @Param({BenchmarkPositions.STANDARD, BenchmarkPositions.WAC})
+    public String corpus;
+
+    private BoardState[] boards;
+    private MoveGenerator.MoveList[] legalMoves;
+    private final MoveGenerator.MoveList moves = new MoveGenerator.MoveList(256);
+
+    @Setup
+    public void setup() {
+        boards = BenchmarkPositions.boards(corpus);
+        legalMoves = new MoveGenerator.MoveList[boards.length];
+        for (int i = 0; i < boards.length; i++) {
+            legalMoves[i] = MoveGenerator.generateAllMoves(boards[i], false);
+        }
+    }
+
+    @Benchmark
+    public void generateAllMoves(Blackhole blackhole) {
+        for (BoardState state : boards) {
+            blackhole.consume(MoveGenerator.generateAllMoves(state, false));
+        }
+    }
+
+    @Benchmark
+    public int generateMovesReusedList() {
+        int total = 0;
+        for (BoardState state : boards) {
+            MoveGenerator.generateMoves(state, moves, MoveGenerator.ALL);
+            total += moves.size;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public int generateCaptures() {
+        int total = 0;
+        for (BoardState state : boards) {
+            MoveGenerator.generateMoves(state, moves, MoveGenerator.CAPTURES);
+            total += moves.size;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long makeUnmakeMove() {
+        long keys = 0;
+        for (int i = 0; i < boards.length; i++) {
+            BoardState state = boards[i];
+            MoveGenerator.MoveList list = legalMoves[i];
+            for (int j = 0; j < list.size; j++) {
+                MoveExecutor.makeMove(state, list.moves[j]);
+                keys += state.getZobristKey();
+                MoveExecutor.unmakeMove(state);
+            }
+        }
+        return keys;
+    }
+}
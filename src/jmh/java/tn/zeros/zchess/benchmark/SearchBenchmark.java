@@ -0,0 +1,54 @@
+package tn.zeros.zchess.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.engine.evaluate.EvaluatorType;
+import tn.zeros.zchess.engine.search.SearchLimits;
+import tn.zeros.zchess.engine.search.SearchServiceV1;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-depth searches over a corpus. Tables are cleared before each pass so runs are comparable.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class SearchBenchmark {
+    @Param({BenchmarkPositions.STANDARD, BenchmarkPositions.WAC})
+    public String corpus;
+
+    @Param({"3"})
+    public int depth;
+
+    @Param({"CLASSICAL", "NNUE"})
+    public EvaluatorType evaluator;
+
+    private BoardState[] boards;
+    private SearchServiceV1 searchService;
+    private SearchLimits limits;
+
+    @Setup
+    public void setup() {
+        boards = BenchmarkPositions.boards(corpus);
+        searchService = new SearchServiceV1(SearchLimits.NO_LIMIT, evaluator);
+        limits = SearchLimits.ofDepth(depth);
+    }
+
+    @Setup(Level.Iteration)
+    public void clearTables() {
+        searchService.clear();
+    }
+
+    @Benchmark
+    public int fixedDepthSearch() {
+        int moves = 0;
+        for (BoardState state : boards) {
+            moves ^= searchService.startSearch(state, limits);
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,47 @@
+package tn.zeros.zchess.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import tn.zeros.zchess.engine.search.SearchUtils;
+import tn.zeros.zchess.engine.search.TTEntryType;
+import tn.zeros.zchess.engine.search.TranspositionTable;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Probe and store throughput on a default-sized table with random keys, so most accesses miss the cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TranspositionTableBenchmark {
+    private static final int KEY_COUNT = 1 << 16;
+
+    private final TranspositionTable table = TranspositionTable.ofMegabytes(SearchUtils.DEFAULT_HASH_MB);
+    private final long[] keys = new long[KEY_COUNT];
+    private int index;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = random.nextLong();
+            if ((i & 1) == 0) table.store(keys[i], i & 15, i, TTEntryType.EXACT, i); // Half of the probes hit
+        }
+    }
+
+    @Benchmark
+    public long probe() {
+        index = (index + 1) & (KEY_COUNT - 1);
+        return table.probe(keys[index]);
+    }
+
+    @Benchmark
+    public void store() {
+        index = (index + 1) & (KEY_COUNT - 1);
+        table.store(keys[index], index & 15, index, TTEntryType.LOWER_BOUND, index);
+    }
+}
@@ -10,5 +10,6 @@ module tn.zeros.zchess {
     requires java.naming;
 
     exports tn.zeros.zchess;
+    exports tn.zeros.zchess.uci;
     opens tn.zeros.zchess to javafx.fxml;
 }
\ No newline at end of file
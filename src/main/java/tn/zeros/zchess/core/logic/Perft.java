@@ -0,0 +1,155 @@
+package tn.zeros.zchess.core.logic;
+
+import tn.zeros.zchess.core.logic.generation.MoveGenerator;
+import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.core.service.MoveExecutor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Move generation node counter used to validate the move generator.
+ * <p>
+ * Root moves are split across a fork-join pool, each on its own board copy. Leaves are bulk counted:
+ * at depth 1 the size of the legal move list is returned without making the moves. An optional
+ * {@link PerftHashTable} shared by all workers caches subtree counts by zobrist key and depth.
+ * <p>
+ * The pool lives as long as the instance, so a perft should be reused and closed when done.
+ */
+public class Perft implements AutoCloseable {
+    private static final int MAX_DEPTH = 32;
+
+    private final ForkJoinPool pool;
+    private final PerftHashTable hashTable;
+    private volatile boolean stopped;
+
+    public Perft() {
+        this(Runtime.getRuntime().availableProcessors(), 0);
+    }
+
+    /**
+     * @param threads       number of fork-join workers
+     * @param hashMegabytes size of the shared perft hash, or 0 to disable it
+     */
+    public Perft(int threads, int hashMegabytes) {
+        this.pool = new ForkJoinPool(Math.max(1, threads));
+        this.hashTable = hashMegabytes > 0 ? PerftHashTable.ofMegabytes(hashMegabytes) : null;
+    }
+
+    public long perft(BoardState state, int depth) {
+        if (depth == 0) return 1L;
+        long total = 0;
+        for (long nodes : divide(state, depth).values()) {
+            total += nodes;
+        }
+        return total;
+    }
+
+    /**
+     * Counts the leaf nodes below each root move.
+     *
+     * @return node counts per root move, in generation order
+     * @throws CancellationException if {@link #stop()} was called before the count finished
+     */
+    public Map<Integer, Long> divide(BoardState state, int depth) {
+        if (depth < 0 || depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Perft depth must be between 0 and " + MAX_DEPTH);
+        }
+        Map<Integer, Long> result = new LinkedHashMap<>();
+        if (depth == 0) return result;
+
+        MoveGenerator.MoveList rootMoves = new MoveGenerator.MoveList(256);
+        MoveGenerator.generateMoves(state, rootMoves, MoveGenerator.ALL);
+
+        List<RootMoveTask> tasks = new ArrayList<>(rootMoves.size);
+        for (int i = 0; i < rootMoves.size; i++) {
+            tasks.add(new RootMoveTask(state.clone(), rootMoves.moves[i], depth - 1));
+        }
+        try {
+            pool.invoke(new RecursiveTask<Void>() {
+                @Override
+                protected Void compute() {
+                    ForkJoinTask.invokeAll(tasks);
+                    return null;
+                }
+            });
+            if (stopped) throw new CancellationException("Perft stopped");
+        } finally {
+            stopped = false;
+        }
+
+        for (RootMoveTask task : tasks) {
+            result.put(task.move, task.join());
+        }
+        return result;
+    }
+
+    /**
+     * Aborts the running count from any thread, or the next one if none is running.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    public void clearHash() {
+        if (hashTable != null) hashTable.clear();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    private long count(BoardState state, int depth, MoveGenerator.MoveList[] moveLists) {
+        if (depth == 0) return 1L;
+
+        long key = state.getZobristKey();
+        if (hashTable != null && depth > 1) {
+            long cached = hashTable.probe(key, depth);
+            if (cached != PerftHashTable.NO_ENTRY) return cached;
+        }
+
+        MoveGenerator.MoveList moves = moveLists[depth];
+        MoveGenerator.generateMoves(state, moves, MoveGenerator.ALL);
+        if (depth == 1) return moves.size; // Bulk counting: the generator only returns legal moves
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size && !stopped; i++) {
+            MoveExecutor.makeMove(state, moves.moves[i]);
+            nodes += count(state, depth - 1, moveLists);
+            MoveExecutor.unmakeMove(state);
+        }
+
+        // A stopped count is partial, and stays stopped until the whole divide has unwound
+        if (hashTable != null && !stopped) hashTable.store(key, depth, nodes);
+        return nodes;
+    }
+
+    private class RootMoveTask extends RecursiveTask<Long> {
+        private final BoardState state;
+        private final int move;
+        private final int depth;
+
+        RootMoveTask(BoardState state, int move, int depth) {
+            this.state = state;
+            this.move = move;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            MoveGenerator.MoveList[] moveLists = new MoveGenerator.MoveList[depth + 1];
+            for (int i = 0; i <= depth; i++) {
+                moveLists[i] = new MoveGenerator.MoveList(256);
+            }
+            MoveExecutor.makeMove(state, move);
+            return count(state, depth, moveLists);
+        }
+    }
+}
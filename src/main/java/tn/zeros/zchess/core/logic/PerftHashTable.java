@@ -0,0 +1,60 @@
+package tn.zeros.zchess.core.logic;
+
+import java.util.Arrays;
+
+/**
+ * Lock-free perft cache shared between threads, backed by a single {@code long[]}.
+ * <p>
+ * Each slot takes two longs: a data word holding the depth (6 bits) and node count (58 bits), and
+ * the zobrist key XOR-ed with that data word. A torn read from a concurrent writer fails the
+ * key check and is treated as a miss, so no locking is needed. Slots are always replaced.
+ */
+public class PerftHashTable {
+    public static final long NO_ENTRY = -1L;
+    public static final int MAX_ENTRIES = 1 << 29; // Two longs per entry, so the array length stays an int
+
+    private static final int DEPTH_SHIFT = 58;
+    private static final long COUNT_MASK = (1L << DEPTH_SHIFT) - 1;
+
+    private final long[] table;
+    private final int mask;
+
+    public PerftHashTable(int entries) {
+        int size = Integer.highestOneBit(Math.max(1, Math.min(entries, MAX_ENTRIES)));
+        this.table = new long[size * 2];
+        this.mask = size - 1;
+    }
+
+    public static PerftHashTable ofMegabytes(int megabytes) {
+        long entries = ((long) megabytes << 20) / (2 * Long.BYTES);
+        return new PerftHashTable((int) Math.min(entries, MAX_ENTRIES));
+    }
+
+    /**
+     * @return the stored node count for this position and depth, or {@link #NO_ENTRY}
+     */
+    public long probe(long key, int depth) {
+        int index = index(key, depth);
+        long data = table[index + 1];
+        if (data != 0 && (table[index] ^ data) == key && (int) (data >>> DEPTH_SHIFT) == depth) {
+            return data & COUNT_MASK;
+        }
+        return NO_ENTRY;
+    }
+
+    public void store(long key, int depth, long nodes) {
+        int index = index(key, depth);
+        long data = ((long) depth << DEPTH_SHIFT) | (nodes & COUNT_MASK);
+        table[index] = key ^ data;
+        table[index + 1] = data;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0L);
+    }
+
+    // Mixing in the depth keeps counts for the same position at different depths in separate slots
+    private int index(long key, int depth) {
+        return (int) ((key ^ (depth * 0x9E3779B97F4A7C15L)) & mask) * 2;
+    }
+}
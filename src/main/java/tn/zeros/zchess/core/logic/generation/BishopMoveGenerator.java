@@ -6,7 +6,7 @@ import tn.zeros.zchess.core.model.Piece;
 import tn.zeros.zchess.core.util.PrecomputedMoves;
 
 public class BishopMoveGenerator {
-    public static void generate(BoardState state, int from, MoveGenerator.MoveList moveList, long pinned, long checkingRay, boolean capturesOnly) {
+    public static void generate(BoardState state, int from, MoveGenerator.MoveList moveList, long pinned, long checkingRay, int mode) {
         int bishop = state.getPieceAt(from);
         boolean isWhite = Piece.isWhite(bishop);
         long fromBit = 1L << from;
@@ -15,9 +15,7 @@ public class BishopMoveGenerator {
         long moves = PrecomputedMoves.getMagicBishopAttack(from, state.getAllPieces());
         moves &= ~state.getFriendlyPieces(isWhite);
 
-        if (capturesOnly) {
-            moves &= state.getEnemyPieces(isWhite);  // Capture filter
-        }
+        moves &= MoveGenerator.targetMask(state, isWhite, mode); // Captures / quiets filter
 
         // If pinned, restrict to pin ray
         if ((fromBit & pinned) != 0) {
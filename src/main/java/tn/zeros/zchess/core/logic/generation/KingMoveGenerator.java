@@ -7,28 +7,24 @@ import tn.zeros.zchess.core.util.ChessConstants;
 import tn.zeros.zchess.core.util.PrecomputedMoves;
 
 public class KingMoveGenerator {
-    public static void generate(BoardState state, int from, MoveGenerator.MoveList moveList, long checkers, boolean capturesOnly) {
+    public static void generate(BoardState state, int from, MoveGenerator.MoveList moveList, long checkers, int mode) {
         boolean isWhite = state.isWhiteToMove();
         int kingPiece = state.getPieceAt(from);
         long friendlyPieces = state.getFriendlyPieces(isWhite);
 
-        // Temporarily remove king to compute enemy attacks
-        state.removePiece(from, kingPiece);
-        final long enemyAttacks = calculateAllEnemyAttacks(state, !isWhite);
-        state.addPiece(from, kingPiece);
+        // Enemy attacks as if the king were off the board, so sliders see through it
+        final long enemyAttacks = calculateAllEnemyAttacks(state, !isWhite, state.getAllPieces() & ~(1L << from));
 
         // Generate & filter regular moves
         long possibleMoves = PrecomputedMoves.getKingMoves(from, friendlyPieces) & ~enemyAttacks;
 
-        if (capturesOnly) {
-            possibleMoves &= state.getEnemyPieces(isWhite); // Capture-only filter
-        }
+        possibleMoves &= MoveGenerator.targetMask(state, isWhite, mode); // Captures / quiets filter
 
 
         processRegularMoves(state, from, moveList, possibleMoves, kingPiece);
 
         // Generate castling if not in check
-        if (checkers == 0 && !capturesOnly && state.getCastlingRights() != 0) {
+        if (checkers == 0 && mode != MoveGenerator.CAPTURES && state.getCastlingRights() != 0) {
             generateCastlingMoves(state, from, isWhite, moveList, enemyAttacks);
         }
     }
@@ -41,8 +37,7 @@ public class KingMoveGenerator {
         }
     }
 
-    private static long calculateAllEnemyAttacks(BoardState state, boolean enemyIsWhite) {
-        final long allPieces = state.getAllPieces(); // King is already removed
+    private static long calculateAllEnemyAttacks(BoardState state, boolean enemyIsWhite, long allPieces) {
         final int color = enemyIsWhite ? Piece.WHITE : Piece.BLACK;
         long attacks = 0;
 
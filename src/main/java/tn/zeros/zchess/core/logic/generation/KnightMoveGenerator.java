@@ -6,7 +6,7 @@ import tn.zeros.zchess.core.model.Piece;
 import tn.zeros.zchess.core.util.PrecomputedMoves;
 
 public class KnightMoveGenerator {
-    public static void generate(BoardState state, int from, MoveGenerator.MoveList moveList, long pinned, long checkingRay, boolean capturesOnly) {
+    public static void generate(BoardState state, int from, MoveGenerator.MoveList moveList, long pinned, long checkingRay, int mode) {
         // Pinned knights can't move
         if ((1L << from & pinned) != 0) {
             return;
@@ -17,9 +17,7 @@ public class KnightMoveGenerator {
 
         long possibleMoves = PrecomputedMoves.getKnightMoves(from, state.getFriendlyPieces(isWhite));
 
-        if (capturesOnly) {
-            possibleMoves &= state.getEnemyPieces(isWhite);  // Capture filter
-        }
+        possibleMoves &= MoveGenerator.targetMask(state, isWhite, mode); // Captures / quiets filter
 
         // Filter moves by checking ray if in check
         if (checkingRay != -1L) {
@@ -1,6 +1,7 @@
 package tn.zeros.zchess.core.logic.generation;
 
 import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.core.model.Move;
 import tn.zeros.zchess.core.model.Piece;
 import tn.zeros.zchess.core.util.PrecomputedMoves;
 
@@ -9,10 +10,26 @@ import java.util.Arrays;
 import java.util.List;
 
 public class MoveGenerator {
+    // Generation modes
+    public static final int ALL = 0;
+    public static final int CAPTURES = 1;
+    public static final int QUIETS = 2;
+
     private static final int DEFAULT_CAPACITY = 128;
 
     public static MoveList generateAllMoves(BoardState state, boolean capturesOnly) {
         MoveList moveList = new MoveList(DEFAULT_CAPACITY);
+        generateMoves(state, moveList, capturesOnly ? CAPTURES : ALL);
+        return moveList;
+    }
+
+    /**
+     * Fills {@code moveList} with the legal moves of the side to move.
+     *
+     * @param mode {@link #ALL}, {@link #CAPTURES} (including en passant and capturing promotions)
+     *             or {@link #QUIETS} (everything else, including quiet promotions and castling)
+     */
+    public static void generateMoves(BoardState state, MoveList moveList, int mode) {
         moveList.clear();
 
         // Get king square and check info early
@@ -23,8 +40,8 @@ public class MoveGenerator {
 
         // If double check, only generate king moves
         if (checkCount >= 2) {
-            KingMoveGenerator.generate(state, kingSquare, moveList, checkers, capturesOnly);
-            return moveList;
+            KingMoveGenerator.generate(state, kingSquare, moveList, checkers, mode);
+            return;
         }
 
         long pinned = calculatePinnedPieces(state, kingSquare, isWhite);
@@ -34,26 +51,61 @@ public class MoveGenerator {
 
         while (pieces != 0) {
             int square = Long.numberOfTrailingZeros(pieces);
-            int piece = state.getPieceAt(square);
-
-            if (Piece.isPawn(piece)) {
-                PawnMoveGenerator.generate(state, square, moveList, pinned, checkingRay, checkers, capturesOnly);
-            } else if (Piece.isKnight(piece)) {
-                KnightMoveGenerator.generate(state, square, moveList, pinned, checkingRay, capturesOnly);
-            } else if (Piece.isBishop(piece)) {
-                BishopMoveGenerator.generate(state, square, moveList, pinned, checkingRay, capturesOnly);
-            } else if (Piece.isRook(piece)) {
-                RookMoveGenerator.generate(state, square, moveList, pinned, checkingRay, capturesOnly);
-            } else if (Piece.isQueen(piece)) {
-                QueenMoveGenerator.generate(state, square, moveList, pinned, checkingRay, capturesOnly);
-            } else if (Piece.isKing(piece)) {
-                KingMoveGenerator.generate(state, square, moveList, checkers, capturesOnly);
-            }
-
+            generatePieceMoves(state, square, moveList, pinned, checkingRay, checkers, mode);
             pieces &= pieces - 1;
         }
+    }
 
-        return moveList;
+    /**
+     * Checks whether a move (typically from the transposition table or a killer slot) is legal in the
+     * current position without generating the moves of every piece.
+     *
+     * @param scratch list reused to hold the moves of the moving piece
+     */
+    public static boolean isLegalMove(BoardState state, int move, MoveList scratch) {
+        if (move == Move.NULL_MOVE) return false;
+        int from = Move.getFrom(move);
+        int piece = state.getPieceAt(from);
+        if (piece != Move.getPiece(move) || Piece.isWhite(piece) != state.isWhiteToMove()) return false;
+
+        boolean isWhite = state.isWhiteToMove();
+        int kingSquare = state.getKingSquare(isWhite);
+        long checkers = LegalMoveFilter.getAttackersBitboard(state, kingSquare, !isWhite);
+        if (Long.bitCount(checkers) >= 2 && !Piece.isKing(piece)) return false;
+
+        long pinned = calculatePinnedPieces(state, kingSquare, isWhite);
+        long checkingRay = Long.bitCount(checkers) == 1 ? PrecomputedMoves.getBetweenBitboard(kingSquare, Long.numberOfTrailingZeros(checkers)) | checkers : -1L;
+        int mode = Move.getCapturedPiece(move) != Piece.NONE ? CAPTURES : QUIETS;
+
+        scratch.clear();
+        generatePieceMoves(state, from, scratch, pinned, checkingRay, checkers, mode);
+        return scratch.contains(move);
+    }
+
+    private static void generatePieceMoves(BoardState state, int square, MoveList moveList, long pinned, long checkingRay, long checkers, int mode) {
+        int piece = state.getPieceAt(square);
+
+        if (Piece.isPawn(piece)) {
+            PawnMoveGenerator.generate(state, square, moveList, pinned, checkingRay, checkers, mode);
+        } else if (Piece.isKnight(piece)) {
+            KnightMoveGenerator.generate(state, square, moveList, pinned, checkingRay, mode);
+        } else if (Piece.isBishop(piece)) {
+            BishopMoveGenerator.generate(state, square, moveList, pinned, checkingRay, mode);
+        } else if (Piece.isRook(piece)) {
+            RookMoveGenerator.generate(state, square, moveList, pinned, checkingRay, mode);
+        } else if (Piece.isQueen(piece)) {
+            QueenMoveGenerator.generate(state, square, moveList, pinned, checkingRay, mode);
+        } else if (Piece.isKing(piece)) {
+            KingMoveGenerator.generate(state, square, moveList, checkers, mode);
+        }
+    }
+
+    static long targetMask(BoardState state, boolean isWhite, int mode) {
+        return switch (mode) {
+            case CAPTURES -> state.getEnemyPieces(isWhite);
+            case QUIETS -> ~state.getEnemyPieces(isWhite);
+            default -> -1L;
+        };
     }
 
     public static long calculatePinRay(int pieceSquare, int kingSquare, BoardState state) {
@@ -146,18 +198,21 @@ public class MoveGenerator {
         public int[] moves;
         public int size;
 
-        MoveList(int capacity) {
+        public MoveList(int capacity) {
             this.moves = new int[capacity];
             this.size = 0;
         }
 
-        void add(int move) {
+        public void add(int move) {
             if (size == moves.length) {
                 moves = Arrays.copyOf(moves, moves.length * 2);
             }
             moves[size++] = move;
         }
 
+        /**
+         * Boxes every move: meant for UI and tests, not for search code.
+         */
         public List<Integer> toList() {
             List<Integer> moveList = new ArrayList<>(size);
             for (int i = 0; i < size; i++) {
@@ -166,6 +221,13 @@ public class MoveGenerator {
             return moveList;
         }
 
+        public boolean contains(int move) {
+            for (int i = 0; i < size; i++) {
+                if (moves[i] == move) return true;
+            }
+            return false;
+        }
+
         public void clear() {
             size = 0;
         }
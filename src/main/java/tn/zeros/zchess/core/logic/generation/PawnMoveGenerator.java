@@ -7,7 +7,10 @@ import tn.zeros.zchess.core.util.ChessConstants;
 import tn.zeros.zchess.core.util.PrecomputedMoves;
 
 public class PawnMoveGenerator {
-    public static void generate(BoardState state, int from, MoveGenerator.MoveList moveList, long pinned, long checkingRay, long checkers, boolean capturesOnly) {
+    private static final int[] WHITE_PROMOTIONS = promotionPieces(Piece.WHITE);
+    private static final int[] BLACK_PROMOTIONS = promotionPieces(Piece.BLACK);
+
+    public static void generate(BoardState state, int from, MoveGenerator.MoveList moveList, long pinned, long checkingRay, long checkers, int mode) {
         final int pawn = state.getPieceAt(from);
         if (!Piece.isPawn(pawn)) return;
 
@@ -22,9 +25,10 @@ public class PawnMoveGenerator {
         if ((fromBit & pinned) != 0) {
             final long pinRay = MoveGenerator.calculatePinRay(from, kingSquare, state);
             final long pawnAttacks = PrecomputedMoves.getPawnAttacks(from, isWhite);
-            long validMoves = capturesOnly
+            long validMoves = mode == MoveGenerator.CAPTURES
                     ? pawnAttacks & enemyPieces
                     : PrecomputedMoves.getPawnMoves(from, allPieces, enemyPieces, isWhite);
+            if (mode == MoveGenerator.QUIETS) validMoves &= ~enemyPieces;
 
             validMoves &= pinRay;
             if (checkingRay != -1L) validMoves &= checkingRay;
@@ -34,9 +38,10 @@ public class PawnMoveGenerator {
 
         // Calculate possible moves using bitboard parallelism
         final long pawnAttacks = PrecomputedMoves.getPawnAttacks(from, isWhite);
-        long possibleMoves = capturesOnly
+        long possibleMoves = mode == MoveGenerator.CAPTURES
                 ? pawnAttacks & enemyPieces
                 : PrecomputedMoves.getPawnMoves(from, allPieces, enemyPieces, isWhite);
+        if (mode == MoveGenerator.QUIETS) possibleMoves &= ~enemyPieces; // Pushes only
 
         // Check evasion and en passant validation
         if (checkingRay != -1L) {
@@ -62,7 +67,7 @@ public class PawnMoveGenerator {
 
     private static void generateMoves(BoardState state, int from, int pawn, long moves,
                                       MoveGenerator.MoveList moveList, int epSquare, boolean isWhite) {
-        final int[] promotions = getPromotionPieces(pawn);
+        final int[] promotions = isWhite ? WHITE_PROMOTIONS : BLACK_PROMOTIONS;
         final long promotionMask = isWhite ? ChessConstants.RANK_8 : ChessConstants.RANK_1;
 
         while (moves != 0) {
@@ -80,8 +85,7 @@ public class PawnMoveGenerator {
         }
     }
 
-    private static int[] getPromotionPieces(int pawn) {
-        final int color = Piece.getColor(pawn);
+    private static int[] promotionPieces(int color) {
         return new int[]{
                 Piece.makePiece(Piece.QUEEN, color),
                 Piece.makePiece(Piece.KNIGHT, color),
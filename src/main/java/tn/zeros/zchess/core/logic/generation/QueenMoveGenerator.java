@@ -6,7 +6,7 @@ import tn.zeros.zchess.core.model.Piece;
 import tn.zeros.zchess.core.util.PrecomputedMoves;
 
 public class QueenMoveGenerator {
-    public static void generate(BoardState state, int from, MoveGenerator.MoveList moveList, long pinned, long checkingRay, boolean capturesOnly) {
+    public static void generate(BoardState state, int from, MoveGenerator.MoveList moveList, long pinned, long checkingRay, int mode) {
         int queen = state.getPieceAt(from);
         boolean isWhite = Piece.isWhite(queen);
         long fromBit = 1L << from;
@@ -16,9 +16,7 @@ public class QueenMoveGenerator {
                 PrecomputedMoves.getMagicRookAttack(from, state.getAllPieces());
         moves &= ~state.getFriendlyPieces(isWhite);
 
-        if (capturesOnly) {
-            moves &= state.getEnemyPieces(isWhite);
-        }
+        moves &= MoveGenerator.targetMask(state, isWhite, mode); // Captures / quiets filter
 
         // If pinned, restrict to pin ray
         if ((fromBit & pinned) != 0) {
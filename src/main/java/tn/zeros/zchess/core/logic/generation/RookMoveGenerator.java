@@ -6,7 +6,7 @@ import tn.zeros.zchess.core.model.Piece;
 import tn.zeros.zchess.core.util.PrecomputedMoves;
 
 public class RookMoveGenerator {
-    public static void generate(BoardState state, int from, MoveGenerator.MoveList moveList, long pinned, long checkingRay, boolean capturesOnly) {
+    public static void generate(BoardState state, int from, MoveGenerator.MoveList moveList, long pinned, long checkingRay, int mode) {
         int rook = state.getPieceAt(from);
         boolean isWhite = Piece.isWhite(rook);
         long fromBit = 1L << from;
@@ -15,10 +15,8 @@ public class RookMoveGenerator {
         long moves = PrecomputedMoves.getMagicRookAttack(from, state.getAllPieces());
         moves &= ~state.getFriendlyPieces(isWhite);
 
-        // Captures only filter
-        if (capturesOnly) {
-            moves &= state.getEnemyPieces(isWhite);
-        }
+        // Generation mode filter (captures / quiets)
+        moves &= MoveGenerator.targetMask(state, isWhite, mode);
 
 
         // If pinned, restrict to pin ray
@@ -0,0 +1,23 @@
+package tn.zeros.zchess.core.model;
+
+/**
+ * Receives piece and move stack changes from a {@link BoardState}, so that engine state kept outside
+ * the board (such as NNUE accumulators) can be updated incrementally alongside it.
+ */
+public interface BoardListener {
+    /**
+     * Called before the pieces of a new move are changed.
+     */
+    void onMovePushed();
+
+    /**
+     * Called once a move has been fully undone.
+     */
+    void onMovePopped();
+
+    void onPieceAdded(int square, int piece);
+
+    void onPieceRemoved(int square, int piece);
+
+    void onPieceMoved(int from, int to, int piece);
+}
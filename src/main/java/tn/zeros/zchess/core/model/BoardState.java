@@ -1,16 +1,15 @@
 package tn.zeros.zchess.core.model;
 
 import java.util.Arrays;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static tn.zeros.zchess.core.util.ChessConstants.*;
 
 public class BoardState {
+    private static final int INITIAL_HISTORY_CAPACITY = 1024;
+
     private final long[] pieceBitboards = new long[6]; // Indexed by piece type
     private final long[] colorBitboards = new long[2]; // Indexed by color
     private final int[] pieceSquare = new int[64];
-    private final Map<Long, Integer> positionCounts = new ConcurrentHashMap<>();
     private boolean whiteToMove;
     private int castlingRights;
     private int enPassantSquare;
@@ -18,14 +17,36 @@ public class BoardState {
     private int fullMoveNumber;
 
     private long zobristKey;
+    private long pawnKey; // Zobrist key of the pawns only, for the pawn structure cache
+
+    // Incremental evaluation terms, white minus black, updated with the pieces like the zobrist key
+    private int midgameScore;
+    private int endgameScore;
+    private int phase;
+    private final int[] material = new int[2]; // Indexed by color
+
+    private BoardListener listener;
+
+    // Undo stack: state that make/unmake cannot recompute, indexed by history ply
+    private int historyPly;
+    private int[] moveHistory = new int[INITIAL_HISTORY_CAPACITY];
+    private int[] castlingHistory = new int[INITIAL_HISTORY_CAPACITY];
+    private int[] enPassantHistory = new int[INITIAL_HISTORY_CAPACITY];
+    private int[] halfMoveClockHistory = new int[INITIAL_HISTORY_CAPACITY];
+    private long[] zobristHistory = new long[INITIAL_HISTORY_CAPACITY];
 
     public BoardState() {
         initializeStartingPosition();
     }
 
     private void initializeStartingPosition() {
-        clearPositionCounts();
+        clearHistory();
         zobristKey = 0L;
+        pawnKey = 0L;
+        midgameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+        Arrays.fill(material, 0);
         Arrays.fill(pieceSquare, Piece.NONE);
         setRank(Piece.PAWN, Piece.WHITE, 1);
         setBackRank(Piece.WHITE, 0);
@@ -63,6 +84,7 @@ public class BoardState {
         int square = rank * 8 + file;
         int colorIndex = getColorIndex(color);
         togglePiece(pieceType, colorIndex, square);
+        addEvalTerms(pieceType, colorIndex, square);
         pieceBitboards[pieceType] |= 1L << square;
         colorBitboards[colorIndex] |= 1L << square;
         pieceSquare[square] = Piece.makePiece(pieceType, color);
@@ -154,10 +176,14 @@ public class BoardState {
 
         togglePiece(type, colorIndex, from);
         togglePiece(type, colorIndex, to);
+        int pieceIndex = Zobrist.pieceIndex(type, colorIndex);
+        midgameScore += PieceSquareTables.MIDGAME[pieceIndex][to] - PieceSquareTables.MIDGAME[pieceIndex][from];
+        endgameScore += PieceSquareTables.ENDGAME[pieceIndex][to] - PieceSquareTables.ENDGAME[pieceIndex][from];
         pieceBitboards[type] ^= combinedMask;
         colorBitboards[colorIndex] ^= combinedMask;
         pieceSquare[from] = Piece.NONE;
         pieceSquare[to] = piece;
+        if (listener != null) listener.onPieceMoved(from, to, piece);
     }
 
     public void removePiece(int square, int piece) {
@@ -167,9 +193,11 @@ public class BoardState {
         final int colorIndex = getColorIndex(Piece.getColor(piece));
 
         togglePiece(type, colorIndex, square);
+        removeEvalTerms(type, colorIndex, square);
         pieceBitboards[type] &= ~mask;
         colorBitboards[colorIndex] &= ~mask;
         pieceSquare[square] = Piece.NONE;
+        if (listener != null) listener.onPieceRemoved(square, piece);
     }
 
     public void addPiece(int square, int piece) {
@@ -178,13 +206,121 @@ public class BoardState {
         final int colorIndex = getColorIndex(Piece.getColor(piece));
 
         togglePiece(type, colorIndex, square);
+        addEvalTerms(type, colorIndex, square);
         pieceBitboards[type] |= mask;
         colorBitboards[colorIndex] |= mask;
         pieceSquare[square] = piece;
+        if (listener != null) listener.onPieceAdded(square, piece);
+    }
+
+    private void addEvalTerms(int type, int colorIndex, int square) {
+        int pieceIndex = Zobrist.pieceIndex(type, colorIndex);
+        midgameScore += PieceSquareTables.MIDGAME[pieceIndex][square];
+        endgameScore += PieceSquareTables.ENDGAME[pieceIndex][square];
+        phase += PieceSquareTables.PHASE_WEIGHTS[type];
+        material[colorIndex] += PieceSquareTables.MATERIAL_VALUES[type];
+    }
+
+    private void removeEvalTerms(int type, int colorIndex, int square) {
+        int pieceIndex = Zobrist.pieceIndex(type, colorIndex);
+        midgameScore -= PieceSquareTables.MIDGAME[pieceIndex][square];
+        endgameScore -= PieceSquareTables.ENDGAME[pieceIndex][square];
+        phase -= PieceSquareTables.PHASE_WEIGHTS[type];
+        material[colorIndex] -= PieceSquareTables.MATERIAL_VALUES[type];
+    }
+
+    /**
+     * @return midgame material and piece-square score, white minus black
+     */
+    public int getMidgameScore() {
+        return midgameScore;
+    }
+
+    /**
+     * @return endgame material and piece-square score, white minus black
+     */
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    /**
+     * @return game phase, from 0 (pawns and kings only) upwards; {@link PieceSquareTables#MAX_PHASE} at the start
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    public int getMaterial(boolean white) {
+        return material[getColorIndex(white ? Piece.WHITE : Piece.BLACK)];
+    }
+
+    /**
+     * Saves the state that a move irreversibly changes (castling rights, en passant square,
+     * half-move clock and zobrist key) before the move is made.
+     */
+    public void pushHistory(int move) {
+        if (historyPly == moveHistory.length) {
+            growHistory();
+        }
+        moveHistory[historyPly] = move;
+        castlingHistory[historyPly] = castlingRights;
+        enPassantHistory[historyPly] = enPassantSquare;
+        halfMoveClockHistory[historyPly] = halfMoveClock;
+        zobristHistory[historyPly] = zobristKey;
+        historyPly++;
+        if (listener != null) listener.onMovePushed();
     }
 
-    public Map<Long, Integer> getPositionCounts() {
-        return positionCounts;
+    /**
+     * Restores the state saved by the matching {@link #pushHistory(int)}. Must be called after the
+     * pieces have been moved back, since it also restores the zobrist key.
+     *
+     * @return the move that was undone
+     */
+    public int popHistory() {
+        historyPly--;
+        castlingRights = castlingHistory[historyPly];
+        enPassantSquare = enPassantHistory[historyPly];
+        halfMoveClock = halfMoveClockHistory[historyPly];
+        zobristKey = zobristHistory[historyPly];
+        if (listener != null) listener.onMovePopped();
+        return moveHistory[historyPly];
+    }
+
+    public int getLastMove() {
+        return historyPly > 0 ? moveHistory[historyPly - 1] : Move.NULL_MOVE;
+    }
+
+    /**
+     * Sets the listener notified of piece and move stack changes, or {@code null} to remove it.
+     * Listeners are not copied by {@link #clone()}.
+     */
+    public void setListener(BoardListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return the zobrist key of the position before the move made at the given history ply
+     */
+    public long getHistoryKey(int ply) {
+        return zobristHistory[ply];
+    }
+
+    public int getHistoryPly() {
+        return historyPly;
+    }
+
+    public void clearHistory() {
+        historyPly = 0;
+    }
+
+    private void growHistory() {
+        int capacity = moveHistory.length * 2;
+        moveHistory = Arrays.copyOf(moveHistory, capacity);
+        castlingHistory = Arrays.copyOf(castlingHistory, capacity);
+        enPassantHistory = Arrays.copyOf(enPassantHistory, capacity);
+        halfMoveClockHistory = Arrays.copyOf(halfMoveClockHistory, capacity);
+        zobristHistory = Arrays.copyOf(zobristHistory, capacity);
     }
 
     public int getKingSquare(boolean white) {
@@ -195,10 +331,6 @@ public class BoardState {
         return color >> 3;
     }
 
-    public void clearPositionCounts() {
-        this.positionCounts.clear();
-    }
-
     @Override
     public BoardState clone() {
         BoardState cloned = new BoardState();
@@ -208,15 +340,31 @@ public class BoardState {
 
         System.arraycopy(this.pieceSquare, 0, cloned.pieceSquare, 0, this.pieceSquare.length);
 
-        cloned.positionCounts.clear();
-        cloned.positionCounts.putAll(this.positionCounts);
-
         cloned.whiteToMove = this.whiteToMove;
         cloned.castlingRights = this.castlingRights;
         cloned.enPassantSquare = this.enPassantSquare;
         cloned.halfMoveClock = this.halfMoveClock;
         cloned.fullMoveNumber = this.fullMoveNumber;
         cloned.zobristKey = this.zobristKey;
+        cloned.pawnKey = this.pawnKey;
+        cloned.midgameScore = this.midgameScore;
+        cloned.endgameScore = this.endgameScore;
+        cloned.phase = this.phase;
+        System.arraycopy(this.material, 0, cloned.material, 0, this.material.length);
+
+        if (cloned.moveHistory.length < this.historyPly) {
+            cloned.moveHistory = new int[this.moveHistory.length];
+            cloned.castlingHistory = new int[this.moveHistory.length];
+            cloned.enPassantHistory = new int[this.moveHistory.length];
+            cloned.halfMoveClockHistory = new int[this.moveHistory.length];
+            cloned.zobristHistory = new long[this.moveHistory.length];
+        }
+        System.arraycopy(this.moveHistory, 0, cloned.moveHistory, 0, this.historyPly);
+        System.arraycopy(this.castlingHistory, 0, cloned.castlingHistory, 0, this.historyPly);
+        System.arraycopy(this.enPassantHistory, 0, cloned.enPassantHistory, 0, this.historyPly);
+        System.arraycopy(this.halfMoveClockHistory, 0, cloned.halfMoveClockHistory, 0, this.historyPly);
+        System.arraycopy(this.zobristHistory, 0, cloned.zobristHistory, 0, this.historyPly);
+        cloned.historyPly = this.historyPly;
 
         return cloned;
     }
@@ -226,6 +374,10 @@ public class BoardState {
         return zobristKey;
     }
 
+    public long getPawnKey() {
+        return pawnKey;
+    }
+
     public void setZobristKey(long zobristKey) {
         this.zobristKey = zobristKey;
     }
@@ -233,6 +385,7 @@ public class BoardState {
     private void togglePiece(int pieceType, int color, int square) {
         int pieceIdx = Zobrist.pieceIndex(pieceType, color);
         zobristKey ^= Zobrist.PIECES[pieceIdx][square];
+        if (pieceType == Piece.PAWN) pawnKey ^= Zobrist.PIECES[pieceIdx][square];
     }
 
     private void toggleEnPassant(int file) {
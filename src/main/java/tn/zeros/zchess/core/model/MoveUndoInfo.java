@@ -1,11 +0,0 @@
-package tn.zeros.zchess.core.model;
-
-public record MoveUndoInfo(
-        int move,
-        int previousCastlingRights,
-        int previousEnPassantSquare,
-        int previousHalfMoveClock,
-        long previousZobristKey,
-        long newZobristKey
-) {
-}
\ No newline at end of file
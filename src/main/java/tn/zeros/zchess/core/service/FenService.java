@@ -100,6 +100,7 @@ public class FenService {
                 state.removePiece(i, piece);
             }
         }
+        state.clearHistory();
     }
 
     private static void parsePiecePlacement(BoardState state, String placement) {
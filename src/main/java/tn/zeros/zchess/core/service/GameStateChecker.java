@@ -78,16 +78,32 @@ public class GameStateChecker {
     }
 
     public static boolean isFiftyMoveRule(BoardState boardState) {
-        return boardState.getHalfMoveClock() >= 50;
+        return boardState.getHalfMoveClock() >= 100; // Fifty moves by each side
     }
 
     public static boolean isThreefoldRepetition(BoardState boardState) {
-        long currentKey = boardState.getZobristKey();
-        return boardState.getPositionCounts().getOrDefault(currentKey, 0) >= 3;
+        return isRepetition(boardState, 0);
     }
 
-    public static boolean isTwoFoldRepetition(BoardState boardState) {
+    /**
+     * Search-time repetition check. A position repeated inside the search tree (within the last
+     * {@code searchPly} plies) is scored as a draw on its first repetition, since the side that
+     * could avoid it would have done so; positions from the game history still need to occur three times.
+     * <p>
+     * Only positions since the last irreversible move can repeat, so the key history is scanned back
+     * at most {@code halfMoveClock} plies, skipping the positions with the other side to move.
+     */
+    public static boolean isRepetition(BoardState boardState, int searchPly) {
         long currentKey = boardState.getZobristKey();
-        return boardState.getPositionCounts().getOrDefault(currentKey, 0) >= 2;
+        int historyPly = boardState.getHistoryPly();
+        int oldest = Math.max(0, historyPly - boardState.getHalfMoveClock());
+        int count = 0;
+
+        for (int ply = historyPly - 4; ply >= oldest; ply -= 2) {
+            if (boardState.getHistoryKey(ply) == currentKey) {
+                if (historyPly - ply <= searchPly || ++count == 2) return true;
+            }
+        }
+        return false;
     }
 }
@@ -2,15 +2,14 @@ package tn.zeros.zchess.core.service;
 
 import tn.zeros.zchess.core.model.BoardState;
 import tn.zeros.zchess.core.model.Move;
-import tn.zeros.zchess.core.model.MoveUndoInfo;
 import tn.zeros.zchess.core.model.Piece;
 
 import static tn.zeros.zchess.core.util.ChessConstants.*;
 
 public class MoveExecutor {
-    public static MoveUndoInfo makeMove(BoardState state, int move) {
-        // Save pre-move state
-        MoveUndoInfo undoInfo = new MoveUndoInfo(move, state.getCastlingRights(), state.getEnPassantSquare(), state.getHalfMoveClock(), state.getZobristKey(), 0L);
+    public static void makeMove(BoardState state, int move) {
+        // Save pre-move state on the board's undo stack
+        state.pushHistory(move);
 
         // Handle special moves
         if (Move.isCastling(move)) {
@@ -28,10 +27,6 @@ public class MoveExecutor {
 
         // Update game state
         updateGameState(state, move);
-
-        long newZobristKey = state.getZobristKey();
-        state.getPositionCounts().put(newZobristKey, state.getPositionCounts().getOrDefault(newZobristKey, 0) + 1);
-        return new MoveUndoInfo(undoInfo.move(), undoInfo.previousCastlingRights(), undoInfo.previousEnPassantSquare(), undoInfo.previousHalfMoveClock(), undoInfo.previousZobristKey(), newZobristKey);
     }
 
     private static void executeRegularMove(BoardState state, int move) {
@@ -143,23 +138,23 @@ public class MoveExecutor {
         }
     }
 
-    public static int unmakeMove(BoardState state, MoveUndoInfo undoInfo) {
-        int move = undoInfo.move();
+    /**
+     * Undoes the last move made on the board.
+     *
+     * @return the move that was undone
+     */
+    public static int unmakeMove(BoardState state) {
+        int move = state.getLastMove();
         int from = Move.getFrom(move);
         int to = Move.getTo(move);
         int piece = Move.getPiece(move);
         int capturedPiece = Move.getCapturedPiece(move);
         int promotionPiece = Move.getPromotionPiece(move);
 
-        // Restore game state
-        state.setCastlingRights(undoInfo.previousCastlingRights());
-        state.setEnPassantSquare(undoInfo.previousEnPassantSquare());
-        state.setHalfMoveClock(undoInfo.previousHalfMoveClock());
         state.setWhiteToMove(!state.isWhiteToMove());
         if (!Piece.isWhite(piece)) {
             state.setFullMoveNumber(state.getFullMoveNumber() - 1);
         }
-        state.setZobristKey(undoInfo.previousZobristKey());
 
         // Reverse special moves
         if (Move.isCastling(move)) {
@@ -172,18 +167,28 @@ public class MoveExecutor {
             unmakeRegularMove(state, from, to, piece, capturedPiece);
         }
 
-        long newZobristKey = undoInfo.newZobristKey();
-        Integer currentCount = state.getPositionCounts().get(newZobristKey);
-        if (currentCount != null) {
-            if (currentCount == 1) {
-                state.getPositionCounts().remove(newZobristKey);
-            } else {
-                state.getPositionCounts().put(newZobristKey, currentCount - 1);
-            }
-        }
+        // Restore castling rights, en passant, clocks and the zobrist key last, the piece moves above toggle the key
+        state.popHistory();
         return move;
     }
 
+    /**
+     * Passes the turn without moving a piece, for null-move pruning. The en passant square is cleared and
+     * the half-move clock reset, so that repetition detection never reaches across the null move.
+     * Must be undone with {@link #unmakeNullMove}.
+     */
+    public static void makeNullMove(BoardState state) {
+        state.pushHistory(Move.NULL_MOVE);
+        state.setEnPassantSquare(-1);
+        state.setHalfMoveClock(0);
+        state.setWhiteToMove(!state.isWhiteToMove());
+    }
+
+    public static void unmakeNullMove(BoardState state) {
+        state.setWhiteToMove(!state.isWhiteToMove());
+        state.popHistory(); // Restores en passant, the half-move clock and the zobrist key
+    }
+
     private static void unmakeRegularMove(BoardState state, int from, int to, int piece, int capturedPiece) {
         // Move piece back
         state.movePiece(to, from, piece);
@@ -2,39 +2,38 @@ package tn.zeros.zchess.core.service;
 
 import tn.zeros.zchess.core.model.BoardState;
 import tn.zeros.zchess.core.model.Move;
-import tn.zeros.zchess.core.model.MoveUndoInfo;
 
 import java.util.Stack;
 
 public class StateManager {
     private final BoardState boardState;
-    private final Stack<MoveUndoInfo> undoStack = new Stack<>();
-    private final Stack<MoveUndoInfo> redoStack = new Stack<>();
+    private final Stack<Integer> undoStack = new Stack<>();
+    private final Stack<Integer> redoStack = new Stack<>();
 
     public StateManager(BoardState boardState) {
         this.boardState = boardState;
     }
 
-    public void saveState(MoveUndoInfo undoInfo) {
-        undoStack.push(undoInfo);
+    public void saveState(int move) {
+        undoStack.push(move);
     }
 
     public int undo() {
         if (undoStack.isEmpty()) return Move.NULL_MOVE;
 
-        MoveUndoInfo undoInfo = undoStack.pop();
-        int move = MoveExecutor.unmakeMove(boardState, undoInfo);
-        redoStack.push(undoInfo);
+        undoStack.pop();
+        int move = MoveExecutor.unmakeMove(boardState);
+        redoStack.push(move);
         return move;
     }
 
     public int redo() {
         if (redoStack.isEmpty()) return Move.NULL_MOVE;
 
-        MoveUndoInfo redoInfo = redoStack.pop();
-        saveState(redoInfo);
-        MoveUndoInfo undoInfo = MoveExecutor.makeMove(boardState, redoInfo.move());
-        return undoInfo.move();
+        int move = redoStack.pop();
+        saveState(move);
+        MoveExecutor.makeMove(boardState, move);
+        return move;
     }
 
     public void clearRedo() {
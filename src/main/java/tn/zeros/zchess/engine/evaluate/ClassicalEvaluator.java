@@ -0,0 +1,13 @@
+package tn.zeros.zchess.engine.evaluate;
+
+import tn.zeros.zchess.core.model.BoardState;
+
+/**
+ * Hand-written evaluation: tapered piece-square tables, pawn structure and mop-up.
+ */
+public class ClassicalEvaluator implements Evaluator {
+    @Override
+    public int evaluate(BoardState state) {
+        return EvaluationService.evaluate(state);
+    }
+}
@@ -1,11 +1,14 @@
 package tn.zeros.zchess.engine.evaluate;
 
+import tn.zeros.zchess.core.model.PieceSquareTables;
+
 public class EvalUtils {
-    public static final int PAWN_VALUE = 100;
-    public static final int KNIGHT_VALUE = 300;
-    public static final int BISHOP_VALUE = 300;
-    public static final int ROOK_VALUE = 500;
-    public static final int QUEEN_VALUE = 900;
+    // The same values the board keeps its material sums with
+    public static final int PAWN_VALUE = PieceSquareTables.PAWN_VALUE;
+    public static final int KNIGHT_VALUE = PieceSquareTables.KNIGHT_VALUE;
+    public static final int BISHOP_VALUE = PieceSquareTables.BISHOP_VALUE;
+    public static final int ROOK_VALUE = PieceSquareTables.ROOK_VALUE;
+    public static final int QUEEN_VALUE = PieceSquareTables.QUEEN_VALUE;
     public static final int KING_VALUE = 10000;
     public static final int NONE_VALUE = 0;
 
@@ -2,44 +2,51 @@ package tn.zeros.zchess.engine.evaluate;
 
 import tn.zeros.zchess.core.model.BoardState;
 import tn.zeros.zchess.core.model.Piece;
+import tn.zeros.zchess.core.model.PieceSquareTables;
 
 public class EvaluationService {
-    public static int evaluate(BoardState state) {
-        int whiteEval = 0;
-        int blackEval = 0;
+    private static final ThreadLocal<PawnHashTable> PAWN_HASH_TABLE =
+            ThreadLocal.withInitial(() -> new PawnHashTable(PawnHashTable.DEFAULT_SIZE));
 
-        int whiteMaterial = countMaterial(Piece.WHITE, state);
-        int blackMaterial = countMaterial(Piece.BLACK, state);
+    public static int evaluate(BoardState state) {
+        // Material and piece-square scores are maintained incrementally by the board
+        int midgame = state.getMidgameScore();
+        int endgame = state.getEndgameScore();
+
+        // Pawn structure, cached by pawn key
+        PawnHashTable pawnHashTable = PAWN_HASH_TABLE.get();
+        int pawnEntry = pawnHashTable.probe(state);
+        midgame += pawnHashTable.getMidgameScore(pawnEntry) + PawnStructureEvaluator.kingShield(state);
+        endgame += pawnHashTable.getEndgameScore(pawnEntry) + PawnStructureEvaluator.freePassers(state,
+                pawnHashTable.getPassedPawns(pawnEntry, true), pawnHashTable.getPassedPawns(pawnEntry, false));
+
+        // Tapered blend between midgame and endgame
+        int phase = Math.min(state.getPhase(), PieceSquareTables.MAX_PHASE); // Promotions can exceed the starting phase
+        int eval = (midgame * phase + endgame * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+
+        int whiteMaterial = state.getMaterial(true);
+        int blackMaterial = state.getMaterial(false);
         int whiteMaterialWithoutPawns = whiteMaterial - Long.bitCount(state.getPieces(Piece.PAWN, Piece.WHITE)) * EvalUtils.PAWN_VALUE;
         int blackMaterialWithoutPawns = blackMaterial - Long.bitCount(state.getPieces(Piece.PAWN, Piece.BLACK)) * EvalUtils.PAWN_VALUE;
 
-        // Evaluate material
-        whiteEval += whiteMaterial;
-        blackEval += blackMaterial;
-
         // Evaluate king move up in endgame
         float whiteEndgameWeight = getEndgameWeight(whiteMaterialWithoutPawns);
         float blackEndgameWeight = getEndgameWeight(blackMaterialWithoutPawns);
         int whiteKingSquare = state.getKingSquare(true);
         int blackKingSquare = state.getKingSquare(false);
 
-        whiteEval += mopUpEval(whiteKingSquare, blackKingSquare, whiteEndgameWeight, whiteMaterial, blackMaterial);
-        blackEval += mopUpEval(blackKingSquare, whiteKingSquare, blackEndgameWeight, blackMaterial, whiteMaterial);
+        eval += mopUpEval(whiteKingSquare, blackKingSquare, whiteEndgameWeight, whiteMaterial, blackMaterial);
+        eval -= mopUpEval(blackKingSquare, whiteKingSquare, blackEndgameWeight, blackMaterial, whiteMaterial);
 
-        // Calculate final evaluation
-        int eval = whiteEval - blackEval;
         int perspective = state.isWhiteToMove() ? 1 : -1;
         return eval * perspective;
     }
 
-    private static int countMaterial(int color, BoardState state) {
-        int material = 0;
-        material += Long.bitCount(state.getPieces(Piece.PAWN, color)) * EvalUtils.PAWN_VALUE;
-        material += Long.bitCount(state.getPieces(Piece.KNIGHT, color)) * EvalUtils.KNIGHT_VALUE;
-        material += Long.bitCount(state.getPieces(Piece.BISHOP, color)) * EvalUtils.BISHOP_VALUE;
-        material += Long.bitCount(state.getPieces(Piece.ROOK, color)) * EvalUtils.ROOK_VALUE;
-        material += Long.bitCount(state.getPieces(Piece.QUEEN, color)) * EvalUtils.QUEEN_VALUE;
-        return material;
+    /**
+     * @return the calling thread's pawn structure cache
+     */
+    public static PawnHashTable getPawnHashTable() {
+        return PAWN_HASH_TABLE.get();
     }
 
     private static int mopUpEval(int friendlyKingSquare, int enemyKingSquare, float endgameWeight, int myMaterialScore, int enemyMaterialScore) {
@@ -0,0 +1,19 @@
+package tn.zeros.zchess.engine.evaluate;
+
+import tn.zeros.zchess.core.model.BoardState;
+
+/**
+ * Static evaluation used by the search, scored from the side to move's point of view.
+ * <p>
+ * An evaluator instance belongs to a single search thread. Evaluators that keep incremental state
+ * hook into the searched board in {@link #attach} and release it in {@link #detach}.
+ */
+public interface Evaluator {
+    int evaluate(BoardState state);
+
+    default void attach(BoardState state) {
+    }
+
+    default void detach(BoardState state) {
+    }
+}
@@ -0,0 +1,24 @@
+package tn.zeros.zchess.engine.evaluate;
+
+import tn.zeros.zchess.engine.evaluate.nnue.NnueEvaluator;
+import tn.zeros.zchess.engine.evaluate.nnue.NnueNetwork;
+
+import java.util.function.Supplier;
+
+/**
+ * Selectable evaluation functions. Each search thread gets its own instance from {@link #create()}.
+ */
+public enum EvaluatorType {
+    CLASSICAL(ClassicalEvaluator::new),
+    NNUE(() -> new NnueEvaluator(NnueNetwork.getDefault()));
+
+    private final Supplier<Evaluator> factory;
+
+    EvaluatorType(Supplier<Evaluator> factory) {
+        this.factory = factory;
+    }
+
+    public Evaluator create() {
+        return factory.get();
+    }
+}
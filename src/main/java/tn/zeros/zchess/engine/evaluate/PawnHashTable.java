@@ -0,0 +1,85 @@
+package tn.zeros.zchess.engine.evaluate;
+
+import tn.zeros.zchess.core.model.BoardState;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size cache of pawn structure evaluations, keyed by {@link BoardState#getPawnKey()}.
+ * <p>
+ * Entries are spread over parallel primitive arrays and are not safe to share between threads;
+ * {@link EvaluationService} keeps one table per thread. The pawn structure rarely changes inside a
+ * search tree, so nearly every lookup is a hit.
+ */
+public class PawnHashTable {
+    public static final int DEFAULT_SIZE = 1 << 16;
+
+    private final long[] keys;
+    private final int[] midgameScores;
+    private final int[] endgameScores;
+    private final long[] whitePassedPawns;
+    private final long[] blackPassedPawns;
+    private final boolean[] used;
+    private final int mask;
+
+    private long probes;
+    private long hits;
+
+    public PawnHashTable(int size) {
+        int capacity = Integer.highestOneBit(Math.max(1, size));
+        this.keys = new long[capacity];
+        this.midgameScores = new int[capacity];
+        this.endgameScores = new int[capacity];
+        this.whitePassedPawns = new long[capacity];
+        this.blackPassedPawns = new long[capacity];
+        this.used = new boolean[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Returns the slot holding the pawn structure of the given position, evaluating it on a miss.
+     * Read the slot with {@link #getMidgameScore}, {@link #getEndgameScore} and {@link #getPassedPawns}.
+     */
+    public int probe(BoardState state) {
+        long key = state.getPawnKey();
+        int index = (int) key & mask;
+        probes++;
+        if (used[index] && keys[index] == key) {
+            hits++;
+            return index;
+        }
+        PawnStructureEvaluator.evaluate(state, this, index);
+        keys[index] = key;
+        used[index] = true;
+        return index;
+    }
+
+    void store(int index, int midgameScore, int endgameScore, long whitePassed, long blackPassed) {
+        midgameScores[index] = midgameScore;
+        endgameScores[index] = endgameScore;
+        whitePassedPawns[index] = whitePassed;
+        blackPassedPawns[index] = blackPassed;
+    }
+
+    public int getMidgameScore(int index) {
+        return midgameScores[index];
+    }
+
+    public int getEndgameScore(int index) {
+        return endgameScores[index];
+    }
+
+    public long getPassedPawns(int index, boolean white) {
+        return white ? whitePassedPawns[index] : blackPassedPawns[index];
+    }
+
+    public double getHitRate() {
+        return probes == 0 ? 0 : (double) hits / probes;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        probes = 0;
+        hits = 0;
+    }
+}
@@ -0,0 +1,145 @@
+package tn.zeros.zchess.engine.evaluate;
+
+import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.core.model.Piece;
+import tn.zeros.zchess.core.util.PrecomputedMoves;
+
+import static tn.zeros.zchess.core.util.ChessConstants.FILE_A;
+
+/**
+ * Pawn structure terms: passed, isolated, doubled and backward pawns, plus the king's pawn shield.
+ * Scores are midgame/endgame pairs from white's point of view. Everything except the shield depends
+ * on the pawns alone and is cached in a {@link PawnHashTable}.
+ */
+public class PawnStructureEvaluator {
+    private static final int[] PASSED_MIDGAME = {0, 5, 10, 15, 25, 40, 60, 0}; // By relative rank
+    private static final int[] PASSED_ENDGAME = {0, 10, 15, 25, 45, 75, 120, 0};
+    private static final int DOUBLED_MIDGAME = -10;
+    private static final int DOUBLED_ENDGAME = -20;
+    private static final int ISOLATED_MIDGAME = -10;
+    private static final int ISOLATED_ENDGAME = -15;
+    private static final int BACKWARD_MIDGAME = -8;
+    private static final int BACKWARD_ENDGAME = -10;
+    private static final int[] FREE_PASSER_ENDGAME = {0, 0, 5, 10, 20, 35, 60, 0};
+    private static final int SHIELD_CLOSE_BONUS = 12;
+    private static final int SHIELD_FAR_BONUS = 6;
+
+    private static final long[] FILES = new long[8];
+    private static final long[] ADJACENT_FILES = new long[8];
+    private static final long[][] PASSED_MASKS = new long[2][64]; // Same and adjacent files ahead of the pawn
+    private static final long[][] SUPPORT_MASKS = new long[2][64]; // Adjacent files, level with or behind the pawn
+    private static final long[][] SHIELD_CLOSE = new long[2][64]; // King file and neighbours, one rank ahead
+    private static final long[][] SHIELD_FAR = new long[2][64]; // Same files, two ranks ahead
+
+    static {
+        for (int file = 0; file < 8; file++) {
+            FILES[file] = FILE_A << file;
+        }
+        for (int file = 0; file < 8; file++) {
+            ADJACENT_FILES[file] = (file > 0 ? FILES[file - 1] : 0) | (file < 7 ? FILES[file + 1] : 0);
+        }
+        for (int square = 0; square < 64; square++) {
+            int file = square & 7;
+            int rank = square >> 3;
+            long span = FILES[file] | ADJACENT_FILES[file];
+            for (int r = 0; r < 8; r++) {
+                long rankMask = 0xFFL << (r * 8);
+                if (r > rank) PASSED_MASKS[0][square] |= span & rankMask;
+                if (r < rank) PASSED_MASKS[1][square] |= span & rankMask;
+                if (r <= rank) SUPPORT_MASKS[0][square] |= ADJACENT_FILES[file] & rankMask;
+                if (r >= rank) SUPPORT_MASKS[1][square] |= ADJACENT_FILES[file] & rankMask;
+                if (r == rank + 1) SHIELD_CLOSE[0][square] |= span & rankMask;
+                if (r == rank + 2) SHIELD_FAR[0][square] |= span & rankMask;
+                if (r == rank - 1) SHIELD_CLOSE[1][square] |= span & rankMask;
+                if (r == rank - 2) SHIELD_FAR[1][square] |= span & rankMask;
+            }
+        }
+    }
+
+    private PawnStructureEvaluator() {
+    }
+
+    static void evaluate(BoardState state, PawnHashTable table, int index) {
+        long whitePawns = state.getPieces(Piece.PAWN, Piece.WHITE);
+        long blackPawns = state.getPieces(Piece.PAWN, Piece.BLACK);
+        int midgame = 0;
+        int endgame = 0;
+        long whitePassed = 0;
+        long blackPassed = 0;
+
+        for (int color = 0; color < 2; color++) {
+            boolean white = color == 0;
+            long friendly = white ? whitePawns : blackPawns;
+            long enemy = white ? blackPawns : whitePawns;
+            int sign = white ? 1 : -1;
+            long passed = 0;
+
+            for (long pawns = friendly; pawns != 0; pawns &= pawns - 1) {
+                int square = Long.numberOfTrailingZeros(pawns);
+                int file = square & 7;
+                int relativeRank = white ? square >> 3 : 7 - (square >> 3);
+
+                if ((PASSED_MASKS[color][square] & enemy) == 0) {
+                    passed |= 1L << square;
+                    midgame += sign * PASSED_MIDGAME[relativeRank];
+                    endgame += sign * PASSED_ENDGAME[relativeRank];
+                }
+                if ((ADJACENT_FILES[file] & friendly) == 0) {
+                    midgame += sign * ISOLATED_MIDGAME;
+                    endgame += sign * ISOLATED_ENDGAME;
+                } else if ((SUPPORT_MASKS[color][square] & friendly) == 0) {
+                    // No pawn can defend it, and advancing runs into an enemy pawn's attack
+                    int stopSquare = square + (white ? 8 : -8);
+                    if ((PrecomputedMoves.getPawnAttacks(stopSquare, white) & enemy) != 0) {
+                        midgame += sign * BACKWARD_MIDGAME;
+                        endgame += sign * BACKWARD_ENDGAME;
+                    }
+                }
+            }
+
+            for (int file = 0; file < 8; file++) {
+                int count = Long.bitCount(friendly & FILES[file]);
+                if (count > 1) {
+                    midgame += sign * DOUBLED_MIDGAME * (count - 1);
+                    endgame += sign * DOUBLED_ENDGAME * (count - 1);
+                }
+            }
+
+            if (white) whitePassed = passed;
+            else blackPassed = passed;
+        }
+
+        table.store(index, midgame, endgame, whitePassed, blackPassed);
+    }
+
+    /**
+     * Endgame bonus for cached passed pawns whose next square is empty, white minus black.
+     */
+    public static int freePassers(BoardState state, long whitePassed, long blackPassed) {
+        long empty = ~state.getAllPieces();
+        int score = 0;
+        for (long pawns = whitePassed & (empty >>> 8); pawns != 0; pawns &= pawns - 1) {
+            score += FREE_PASSER_ENDGAME[Long.numberOfTrailingZeros(pawns) >> 3];
+        }
+        for (long pawns = blackPassed & (empty << 8); pawns != 0; pawns &= pawns - 1) {
+            score -= FREE_PASSER_ENDGAME[7 - (Long.numberOfTrailingZeros(pawns) >> 3)];
+        }
+        return score;
+    }
+
+    /**
+     * Midgame bonus for pawns directly in front of each king, white minus black. Not cached since it
+     * depends on the king squares.
+     */
+    public static int kingShield(BoardState state) {
+        return shield(state, true) - shield(state, false);
+    }
+
+    private static int shield(BoardState state, boolean white) {
+        int color = white ? 0 : 1;
+        int kingSquare = state.getKingSquare(white);
+        long pawns = state.getPieces(Piece.PAWN, white ? Piece.WHITE : Piece.BLACK);
+        return SHIELD_CLOSE_BONUS * Long.bitCount(pawns & SHIELD_CLOSE[color][kingSquare])
+                + SHIELD_FAR_BONUS * Long.bitCount(pawns & SHIELD_FAR[color][kingSquare]);
+    }
+}
@@ -0,0 +1,202 @@
+package tn.zeros.zchess.engine.evaluate.nnue;
+
+import tn.zeros.zchess.core.model.BoardListener;
+import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.core.model.Piece;
+import tn.zeros.zchess.engine.evaluate.Evaluator;
+
+import java.util.Arrays;
+
+/**
+ * Evaluates positions with an {@link NnueNetwork}, keeping one pair of first-layer accumulators per
+ * ply of the attached board.
+ * <p>
+ * Piece changes reported by the board are recorded as feature deltas against the parent ply, and only
+ * applied when a position is actually evaluated: nodes that are cut off before their static evaluation
+ * never pay for the update. Since the 768 input features don't depend on the king square, king moves
+ * are plain deltas too; a full refresh is only needed at the root or after unusually many changes.
+ */
+public class NnueEvaluator implements Evaluator, BoardListener {
+    private static final int MAX_DELTAS = 8; // Make and unmake of a castling move, the largest case
+    private static final int INITIAL_PLIES = 128;
+
+    private final NnueNetwork network;
+    private final OutputKernel kernel;
+    private final int hiddenSize;
+
+    private int[][] whiteAccumulators;
+    private int[][] blackAccumulators;
+    private boolean[] computed;
+    private boolean[] needsRefresh;
+    private int[][] addedFeatures; // Packed as white feature << 16 | black feature
+    private int[][] removedFeatures;
+    private int[] addedCount;
+    private int[] removedCount;
+    private int ply;
+
+    public NnueEvaluator(NnueNetwork network) {
+        this.network = network;
+        this.kernel = OutputKernel.best();
+        this.hiddenSize = network.hiddenSize;
+        allocate(INITIAL_PLIES);
+    }
+
+    @Override
+    public void attach(BoardState state) {
+        state.setListener(this);
+        ply = 0;
+        refresh(state);
+    }
+
+    @Override
+    public void detach(BoardState state) {
+        state.setListener(null);
+    }
+
+    @Override
+    public int evaluate(BoardState state) {
+        if (!computed[ply]) update(state);
+        int[] us = state.isWhiteToMove() ? whiteAccumulators[ply] : blackAccumulators[ply];
+        int[] them = state.isWhiteToMove() ? blackAccumulators[ply] : whiteAccumulators[ply];
+        long output = kernel.forward(us, them, network.outputWeights, hiddenSize) + network.outputBias;
+        return (int) (output * network.scale / (NnueNetwork.QA * NnueNetwork.QB));
+    }
+
+    @Override
+    public void onMovePushed() {
+        ply++;
+        if (ply == computed.length) allocate(ply * 2);
+        computed[ply] = false;
+        needsRefresh[ply] = false;
+        addedCount[ply] = 0;
+        removedCount[ply] = 0;
+    }
+
+    @Override
+    public void onMovePopped() {
+        ply--;
+    }
+
+    @Override
+    public void onPieceAdded(int square, int piece) {
+        if (addedCount[ply] == MAX_DELTAS) {
+            needsRefresh[ply] = true;
+        } else {
+            addedFeatures[ply][addedCount[ply]++] = packFeatures(square, piece);
+        }
+        invalidate();
+    }
+
+    @Override
+    public void onPieceRemoved(int square, int piece) {
+        if (removedCount[ply] == MAX_DELTAS) {
+            needsRefresh[ply] = true;
+        } else {
+            removedFeatures[ply][removedCount[ply]++] = packFeatures(square, piece);
+        }
+        invalidate();
+    }
+
+    @Override
+    public void onPieceMoved(int from, int to, int piece) {
+        onPieceRemoved(from, piece);
+        onPieceAdded(to, piece);
+    }
+
+    private void invalidate() {
+        computed[ply] = false;
+        if (ply == 0) needsRefresh[0] = true; // No parent accumulator to apply the deltas to
+    }
+
+    /**
+     * Brings the current ply's accumulators up to date from the closest computed ancestor.
+     */
+    private void update(BoardState state) {
+        int base = ply;
+        while (base > 0 && !computed[base]) {
+            if (needsRefresh[base]) {
+                refresh(state);
+                return;
+            }
+            base--;
+        }
+        if (!computed[base]) {
+            refresh(state);
+            return;
+        }
+        for (int p = base + 1; p <= ply; p++) {
+            int[] white = whiteAccumulators[p];
+            int[] black = blackAccumulators[p];
+            System.arraycopy(whiteAccumulators[p - 1], 0, white, 0, hiddenSize);
+            System.arraycopy(blackAccumulators[p - 1], 0, black, 0, hiddenSize);
+            for (int i = 0; i < removedCount[p]; i++) {
+                int features = removedFeatures[p][i];
+                subtract(white, features >>> 16);
+                subtract(black, features & 0xFFFF);
+            }
+            for (int i = 0; i < addedCount[p]; i++) {
+                int features = addedFeatures[p][i];
+                add(white, features >>> 16);
+                add(black, features & 0xFFFF);
+            }
+            computed[p] = true;
+        }
+    }
+
+    private void refresh(BoardState state) {
+        int[] white = whiteAccumulators[ply];
+        int[] black = blackAccumulators[ply];
+        System.arraycopy(network.featureBiases, 0, white, 0, hiddenSize);
+        System.arraycopy(network.featureBiases, 0, black, 0, hiddenSize);
+        for (long pieces = state.getAllPieces(); pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            int piece = state.getPieceAt(square);
+            add(white, NnueNetwork.featureIndex(true, piece, square));
+            add(black, NnueNetwork.featureIndex(false, piece, square));
+        }
+        computed[ply] = true;
+        needsRefresh[ply] = false;
+        addedCount[ply] = 0;
+        removedCount[ply] = 0;
+    }
+
+    private void add(int[] accumulator, int feature) {
+        int[] weights = network.featureWeights;
+        int offset = feature * hiddenSize;
+        for (int i = 0; i < hiddenSize; i++) {
+            accumulator[i] += weights[offset + i];
+        }
+    }
+
+    private void subtract(int[] accumulator, int feature) {
+        int[] weights = network.featureWeights;
+        int offset = feature * hiddenSize;
+        for (int i = 0; i < hiddenSize; i++) {
+            accumulator[i] -= weights[offset + i];
+        }
+    }
+
+    private static int packFeatures(int square, int piece) {
+        return NnueNetwork.featureIndex(true, piece, square) << 16 | NnueNetwork.featureIndex(false, piece, square);
+    }
+
+    private void allocate(int plies) {
+        int from = computed == null ? 0 : computed.length;
+        whiteAccumulators = grow(whiteAccumulators, plies, from, hiddenSize);
+        blackAccumulators = grow(blackAccumulators, plies, from, hiddenSize);
+        addedFeatures = grow(addedFeatures, plies, from, MAX_DELTAS);
+        removedFeatures = grow(removedFeatures, plies, from, MAX_DELTAS);
+        computed = computed == null ? new boolean[plies] : Arrays.copyOf(computed, plies);
+        needsRefresh = needsRefresh == null ? new boolean[plies] : Arrays.copyOf(needsRefresh, plies);
+        addedCount = addedCount == null ? new int[plies] : Arrays.copyOf(addedCount, plies);
+        removedCount = removedCount == null ? new int[plies] : Arrays.copyOf(removedCount, plies);
+    }
+
+    private static int[][] grow(int[][] rows, int plies, int from, int width) {
+        int[][] grown = rows == null ? new int[plies][] : Arrays.copyOf(rows, plies);
+        for (int p = from; p < plies; p++) {
+            grown[p] = new int[width];
+        }
+        return grown;
+    }
+}
@@ -0,0 +1,149 @@
+package tn.zeros.zchess.engine.evaluate.nnue;
+
+import tn.zeros.zchess.core.model.Piece;
+import tn.zeros.zchess.core.model.PieceSquareTables;
+import tn.zeros.zchess.core.model.Zobrist;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Quantized (768 -> N) x 2 -> 1 network with clipped ReLU activations.
+ * <p>
+ * Inputs are one-hot (piece colour relative to the perspective, piece type, square) features, seen
+ * from both sides: black's perspective flips the board vertically. Hidden activations are clipped to
+ * [0, {@link #QA}] and the output layer is scaled by {@link #QB}, as in common int16 NNUE trainers.
+ * <p>
+ * Binary format, little-endian: int magic, int hidden size, int output scale, then int16 feature
+ * weights [768][N], feature biases [N], output weights [2N] (side to move first) and the output bias.
+ * Weights are widened to {@code int} on load so the hot loops work on a single primitive type.
+ */
+public final class NnueNetwork {
+    public static final int INPUT_SIZE = 768;
+    public static final int QA = 255;
+    public static final int QB = 64;
+
+    private static final int MAGIC = 0x314E4E5A; // "ZNN1"
+    private static final String DEFAULT_RESOURCE = "/nnue/default.nnue";
+
+    final int hiddenSize;
+    final int scale;
+    final int[] featureWeights;
+    final int[] featureBiases;
+    final int[] outputWeights;
+    final int outputBias;
+
+    private NnueNetwork(int hiddenSize, int scale, int[] featureWeights, int[] featureBiases, int[] outputWeights, int outputBias) {
+        this.hiddenSize = hiddenSize;
+        this.scale = scale;
+        this.featureWeights = featureWeights;
+        this.featureBiases = featureBiases;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+    }
+
+    /**
+     * @return the network bundled with the application, loaded once
+     */
+    public static NnueNetwork getDefault() {
+        return DefaultHolder.NETWORK;
+    }
+
+    public static NnueNetwork load(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        ByteBuffer header = ByteBuffer.wrap(data.readNBytes(12)).order(ByteOrder.LITTLE_ENDIAN);
+        if (header.remaining() < 12 || header.getInt() != MAGIC) {
+            throw new IOException("Not a ZChess NNUE network");
+        }
+        int hiddenSize = header.getInt();
+        int scale = header.getInt();
+
+        int[] featureWeights = readShorts(data, INPUT_SIZE * hiddenSize);
+        int[] featureBiases = readShorts(data, hiddenSize);
+        int[] outputWeights = readShorts(data, 2 * hiddenSize);
+        int outputBias = readShorts(data, 1)[0];
+        return new NnueNetwork(hiddenSize, scale, featureWeights, featureBiases, outputWeights, outputBias);
+    }
+
+    public void write(OutputStream out) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(12 + 2 * (featureWeights.length + featureBiases.length + outputWeights.length + 1))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(hiddenSize).putInt(scale);
+        for (int weight : featureWeights) buffer.putShort((short) weight);
+        for (int bias : featureBiases) buffer.putShort((short) bias);
+        for (int weight : outputWeights) buffer.putShort((short) weight);
+        buffer.putShort((short) outputBias);
+        out.write(buffer.array());
+    }
+
+    private static int[] readShorts(DataInputStream data, int count) throws IOException {
+        byte[] bytes = data.readNBytes(count * 2);
+        if (bytes.length != count * 2) throw new EOFException("Truncated NNUE network");
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = buffer.getShort();
+        }
+        return values;
+    }
+
+    /**
+     * @return the input feature of a piece seen from the given perspective
+     */
+    static int featureIndex(boolean whitePerspective, int piece, int square) {
+        boolean whitePiece = Piece.getColor(piece) == Piece.WHITE;
+        int relativeColor = whitePiece == whitePerspective ? 0 : 1;
+        int relativeSquare = whitePerspective ? square : square ^ 56;
+        return (relativeColor * 6 + Piece.getType(piece)) * 64 + relativeSquare;
+    }
+
+    /**
+     * Builds a network that reproduces the (untapered) piece-square evaluation, used to bootstrap the
+     * bundled network until a trained one replaces it. Each feature's value is spread over the hidden
+     * units with {@code floor((v + j) / N)}, which sums back to exactly {@code v}; biases centre the
+     * units so the clipping stays inactive for all but extreme material imbalances.
+     */
+    public static NnueNetwork fromPieceSquareTables(int hiddenSize) {
+        int[] featureWeights = new int[INPUT_SIZE * hiddenSize];
+        for (int type = Piece.PAWN; type <= Piece.KING; type++) {
+            for (int square = 0; square < 64; square++) {
+                int own = Zobrist.pieceIndex(type, 0);
+                int enemy = Zobrist.pieceIndex(type, 1);
+                int ownValue = (PieceSquareTables.MIDGAME[own][square] + PieceSquareTables.ENDGAME[own][square]) / 2;
+                int enemyValue = (PieceSquareTables.MIDGAME[enemy][square] + PieceSquareTables.ENDGAME[enemy][square]) / 2;
+                spread(featureWeights, (type * 64 + square) * hiddenSize, ownValue, hiddenSize);
+                spread(featureWeights, ((6 + type) * 64 + square) * hiddenSize, enemyValue, hiddenSize);
+            }
+        }
+
+        int[] featureBiases = new int[hiddenSize];
+        java.util.Arrays.fill(featureBiases, QA / 2);
+        int[] outputWeights = new int[2 * hiddenSize];
+        for (int i = 0; i < hiddenSize; i++) {
+            outputWeights[i] = QB / 2;
+            outputWeights[hiddenSize + i] = -QB / 2;
+        }
+        // Output sum is QB / 2 * (us - them) = QB * value, and QA * QB / scale undoes the quantization
+        return new NnueNetwork(hiddenSize, QA, featureWeights, featureBiases, outputWeights, 0);
+    }
+
+    private static void spread(int[] weights, int offset, int value, int hiddenSize) {
+        for (int j = 0; j < hiddenSize; j++) {
+            weights[offset + j] = Math.floorDiv(value + j, hiddenSize);
+        }
+    }
+
+    private static final class DefaultHolder {
+        private static final NnueNetwork NETWORK = loadDefault();
+
+        private static NnueNetwork loadDefault() {
+            try (InputStream in = NnueNetwork.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+                if (in == null) throw new IllegalStateException("Missing NNUE resource " + DEFAULT_RESOURCE);
+                return load(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to load NNUE network", e);
+            }
+        }
+    }
+}
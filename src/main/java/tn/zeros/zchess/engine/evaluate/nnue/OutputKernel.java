@@ -0,0 +1,54 @@
+package tn.zeros.zchess.engine.evaluate.nnue;
+
+import java.util.Optional;
+
+/**
+ * Output layer of the network: clipped ReLU over both accumulators followed by a dot product with
+ * the output weights, side to move first.
+ * <p>
+ * {@link #best()} picks the SIMD implementation when it was built ({@code mvn -Pvector}, from
+ * {@code src/vector/java}) and the {@code jdk.incubator.vector} module has been added to the runtime
+ * ({@code --add-modules jdk.incubator.vector}), and the scalar loop otherwise. The default build has
+ * no dependency on the incubating module.
+ */
+interface OutputKernel {
+    int forward(int[] us, int[] them, int[] weights, int hiddenSize);
+
+    static OutputKernel best() {
+        return Holder.BEST;
+    }
+
+    final class Scalar implements OutputKernel {
+        @Override
+        public int forward(int[] us, int[] them, int[] weights, int hiddenSize) {
+            int sum = 0;
+            for (int i = 0; i < hiddenSize; i++) {
+                sum += Math.min(Math.max(us[i], 0), NnueNetwork.QA) * weights[i];
+                sum += Math.min(Math.max(them[i], 0), NnueNetwork.QA) * weights[hiddenSize + i];
+            }
+            return sum;
+        }
+    }
+
+    final class Holder {
+        private static final OutputKernel BEST = select();
+
+        private Holder() {
+        }
+
+        private static OutputKernel select() {
+            Optional<Module> vectorModule = ModuleLayer.boot().findModule("jdk.incubator.vector");
+            if (vectorModule.isPresent()) {
+                try {
+                    OutputKernel.class.getModule().addReads(vectorModule.get()); // Not required by module-info
+                    return (OutputKernel) Class.forName(OutputKernel.class.getPackageName() + ".VectorOutputKernel")
+                            .getDeclaredConstructor()
+                            .newInstance();
+                } catch (ReflectiveOperationException | LinkageError e) {
+                    // Not built with -Pvector: fall through to the scalar loop
+                }
+            }
+            return new Scalar();
+        }
+    }
+}
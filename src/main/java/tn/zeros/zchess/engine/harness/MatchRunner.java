@@ -0,0 +1,299 @@
+package tn.zeros.zchess.engine.harness;
+
+import tn.zeros.zchess.core.logic.generation.MoveGenerator;
+import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.core.model.GameResult;
+import tn.zeros.zchess.core.model.Move;
+import tn.zeros.zchess.core.service.FenService;
+import tn.zeros.zchess.core.service.GameStateChecker;
+import tn.zeros.zchess.core.service.MoveExecutor;
+import tn.zeros.zchess.core.util.ChessConstants;
+import tn.zeros.zchess.engine.evaluate.EvaluatorType;
+import tn.zeros.zchess.engine.models.EngineModel;
+import tn.zeros.zchess.engine.models.ModelV1;
+import tn.zeros.zchess.engine.models.RandomMoveModel;
+import tn.zeros.zchess.engine.search.SearchLimits;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Plays engine A against engine B on a pool of workers until the SPRT accepts a hypothesis or the game
+ * limit is reached. Each opening is played twice with colors swapped, every worker owns its own pair of
+ * engines, and each side moves on its own emulated clock. Games are adjudicated by {@link GameStateChecker}.
+ * <p>
+ * From the command line: {@code MatchRunner [--engine-a classical|nnue|random] [--engine-b ...]
+ * [--openings book.epd|book.pgn] [--games n] [--concurrency n] [--tc base+inc] [--elo0 e] [--elo1 e]
+ * [--alpha a] [--beta b]}, with the time control in seconds.
+ */
+public class MatchRunner {
+    private static final int MAX_PLIES = 600; // Adjudicated as a draw, a safety net behind the fifty-move rule
+
+    private final Supplier<EngineModel> engineA;
+    private final Supplier<EngineModel> engineB;
+    private final long baseTimeMs;
+    private final long incrementMs;
+    private final int concurrency;
+    private final Sprt sprt;
+    private final PrintStream log;
+
+    // Results from engine A's point of view
+    private int wins;
+    private int draws;
+    private int losses;
+    private volatile Sprt.Decision decision = Sprt.Decision.CONTINUE;
+
+    /**
+     * @param log receives one line per finished game, or {@code null} for none
+     */
+    public MatchRunner(Supplier<EngineModel> engineA, Supplier<EngineModel> engineB, long baseTimeMs, long incrementMs,
+                       int concurrency, Sprt sprt, PrintStream log) {
+        this.engineA = engineA;
+        this.engineB = engineB;
+        this.baseTimeMs = baseTimeMs;
+        this.incrementMs = incrementMs;
+        this.concurrency = Math.max(1, concurrency);
+        this.sprt = sprt;
+        this.log = log;
+    }
+
+    public record MatchResult(int wins, int draws, int losses, double llr, Sprt.Decision decision) {
+        public int games() {
+            return wins + draws + losses;
+        }
+
+        public double score() {
+            return games() == 0 ? 0.5 : (wins + 0.5 * draws) / games();
+        }
+
+        /**
+         * @return half the width of the 95% confidence interval of the Elo difference
+         */
+        public double eloError() {
+            if (games() == 0) return Double.POSITIVE_INFINITY;
+            double s = score();
+            double variance = (wins * Math.pow(1 - s, 2) + draws * Math.pow(0.5 - s, 2) + losses * Math.pow(s, 2)) / games();
+            double margin = 1.96 * Math.sqrt(variance / games());
+            return (Sprt.elo(s + margin) - Sprt.elo(s - margin)) / 2;
+        }
+
+        public String summary() {
+            return String.format(Locale.ROOT, "Games: %d, W: %d, D: %d, L: %d, Elo: %.1f +/- %.1f, LLR: %.2f, %s",
+                    games(), wins, draws, losses, Sprt.elo(score()), eloError(), llr, decision);
+        }
+    }
+
+    /**
+     * @param openings FENs, played in order and repeated when there are fewer pairs than games
+     */
+    public MatchResult run(List<String> openings, int maxGames) {
+        AtomicInteger nextPair = new AtomicInteger();
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            workers.add(() -> {
+                EngineModel a = engineA.get();
+                EngineModel b = engineB.get();
+                int pair;
+                while (decision == Sprt.Decision.CONTINUE && (pair = nextPair.getAndIncrement()) * 2 < maxGames) {
+                    String opening = openings.get(pair % openings.size());
+                    for (int color = 0; color < 2 && pair * 2 + color < maxGames && decision == Sprt.Decision.CONTINUE; color++) {
+                        boolean aWhite = color == 0;
+                        GameResult result = playGame(aWhite ? a : b, aWhite ? b : a, opening);
+                        double whiteScore = whiteScore(result);
+                        record(aWhite ? whiteScore : 1 - whiteScore, pair * 2 + color, aWhite, result);
+                    }
+                }
+                return null;
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            for (Future<Void> future : executor.invokeAll(workers)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Match interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Match worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return result();
+    }
+
+    private synchronized void record(double scoreA, int game, boolean aWhite, GameResult result) {
+        if (scoreA == 1) wins++;
+        else if (scoreA == 0) losses++;
+        else draws++;
+
+        if (decision == Sprt.Decision.CONTINUE) decision = sprt.decide(wins, draws, losses);
+        if (log != null) {
+            log.printf(Locale.ROOT, "Game %d (A %s): %s, +%d =%d -%d, LLR %.2f%n", game + 1,
+                    aWhite ? "white" : "black", result, wins, draws, losses, sprt.llr(wins, draws, losses));
+        }
+    }
+
+    private synchronized MatchResult result() {
+        return new MatchResult(wins, draws, losses, sprt.llr(wins, draws, losses), decision);
+    }
+
+    private GameResult playGame(EngineModel white, EngineModel black, String fen) {
+        BoardState state = FenService.parseFEN(fen, new BoardState());
+        white.reset();
+        black.reset();
+        long whiteClockMs = baseTimeMs;
+        long blackClockMs = baseTimeMs;
+
+        for (int ply = 0; ply < MAX_PLIES; ply++) {
+            if (GameStateChecker.isGameOver(state)) return GameStateChecker.getGameResult(state);
+
+            boolean whiteToMove = state.isWhiteToMove();
+            long clockMs = whiteToMove ? whiteClockMs : blackClockMs;
+            long start = System.nanoTime();
+            int move = (whiteToMove ? white : black).generateMove(state, clockMs, incrementMs);
+            clockMs -= (System.nanoTime() - start) / 1_000_000;
+
+            if (clockMs <= 0) {
+                if (GameStateChecker.isInsufficientMaterial(state, true)) return GameResult.DRAW_TIMEOUT;
+                return whiteToMove ? GameResult.WHITE_TIMEOUT : GameResult.BLACK_TIMEOUT;
+            }
+            if (move == Move.NULL_MOVE || !MoveGenerator.generateAllMoves(state, false).toList().contains(move)) {
+                return whiteToMove ? GameResult.BLACK_WINS : GameResult.WHITE_WINS; // Illegal move forfeits
+            }
+
+            clockMs += incrementMs;
+            if (whiteToMove) whiteClockMs = clockMs;
+            else blackClockMs = clockMs;
+            MoveExecutor.makeMove(state, move);
+        }
+        return GameResult.ONGOING;
+    }
+
+    private static double whiteScore(GameResult result) {
+        return switch (result) {
+            case WHITE_WINS, BLACK_TIMEOUT -> 1;
+            case BLACK_WINS, WHITE_TIMEOUT -> 0;
+            default -> 0.5;
+        };
+    }
+
+    /**
+     * Reads opening positions: one per line of an EPD file, or the final position of each game of a PGN file.
+     */
+    public static List<String> loadOpenings(Path path) throws IOException {
+        String content = Files.readString(path);
+        if (path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".pgn")) {
+            return parsePgn(content);
+        }
+        return content.lines()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .map(line -> TestPosition.fromEpd(line).fen())
+                .toList();
+    }
+
+    static List<String> parsePgn(String pgn) {
+        List<String> openings = new ArrayList<>();
+        String startFen = ChessConstants.DEFAULT_FEN;
+        StringBuilder moveText = new StringBuilder();
+        for (String line : pgn.lines().toList()) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("[")) {
+                if (!moveText.isEmpty()) {
+                    openings.add(playPgnMoves(startFen, moveText.toString()));
+                    moveText.setLength(0);
+                    startFen = ChessConstants.DEFAULT_FEN;
+                }
+                if (trimmed.startsWith("[FEN ")) {
+                    startFen = trimmed.substring(trimmed.indexOf('"') + 1, trimmed.lastIndexOf('"'));
+                }
+            } else if (!trimmed.startsWith("%")) {
+                moveText.append(trimmed).append(' ');
+            }
+        }
+        if (!moveText.toString().isBlank()) {
+            openings.add(playPgnMoves(startFen, moveText.toString()));
+        }
+        return openings;
+    }
+
+    private static String playPgnMoves(String startFen, String moveText) {
+        String text = moveText.replaceAll("\\{[^}]*}", " ").replaceAll(";[^\\n]*", " ");
+        String withoutVariations;
+        while (!(withoutVariations = text.replaceAll("\\([^()]*\\)", " ")).equals(text)) {
+            text = withoutVariations;
+        }
+
+        BoardState state = FenService.parseFEN(startFen, new BoardState());
+        for (String token : text.split("\\s+")) {
+            String san = token.replaceAll("^\\d+\\.+", "");
+            if (san.isEmpty() || san.startsWith("$") || san.matches("1-0|0-1|1/2-1/2|\\*")) continue;
+            int move = MoveGenerator.generateAllMoves(state, false).toList().stream()
+                    .filter(legal -> TestPosition.matchesSan(legal, san))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Illegal PGN move: " + san));
+            MoveExecutor.makeMove(state, move);
+        }
+        return FenService.generateFEN(state);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String engineA = "classical";
+        String engineB = "classical";
+        Path openingsPath = null;
+        int games = 1000;
+        int concurrency = Runtime.getRuntime().availableProcessors();
+        String timeControl = "10+0.1";
+        double elo0 = 0, elo1 = 5, alpha = 0.05, beta = 0.05;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--engine-a" -> engineA = args[++i];
+                case "--engine-b" -> engineB = args[++i];
+                case "--openings" -> openingsPath = Path.of(args[++i]);
+                case "--games" -> games = Integer.parseInt(args[++i]);
+                case "--concurrency" -> concurrency = Integer.parseInt(args[++i]);
+                case "--tc" -> timeControl = args[++i];
+                case "--elo0" -> elo0 = Double.parseDouble(args[++i]);
+                case "--elo1" -> elo1 = Double.parseDouble(args[++i]);
+                case "--alpha" -> alpha = Double.parseDouble(args[++i]);
+                case "--beta" -> beta = Double.parseDouble(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        String[] tc = timeControl.split("\\+");
+        long baseMs = (long) (Double.parseDouble(tc[0]) * 1000);
+        long incMs = tc.length > 1 ? (long) (Double.parseDouble(tc[1]) * 1000) : 0;
+        List<String> openings = openingsPath == null ? List.of(ChessConstants.DEFAULT_FEN) : loadOpenings(openingsPath);
+        Sprt sprt = new Sprt(elo0, elo1, alpha, beta);
+        System.out.printf("%s vs %s, %d openings, tc %s, %d concurrent games, %s%n",
+                engineA, engineB, openings.size(), timeControl, concurrency, sprt);
+
+        MatchRunner runner = new MatchRunner(engineFactory(engineA), engineFactory(engineB), baseMs, incMs,
+                concurrency, sprt, System.out);
+        System.out.println(runner.run(openings, games).summary());
+    }
+
+    private static Supplier<EngineModel> engineFactory(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "classical" -> () -> new ModelV1(SearchLimits.NO_LIMIT, 1, EvaluatorType.CLASSICAL);
+            case "nnue" -> () -> new ModelV1(SearchLimits.NO_LIMIT, 1, EvaluatorType.NNUE);
+            case "random" -> RandomMoveModel::new;
+            default -> throw new IllegalArgumentException("Unknown engine: " + name);
+        };
+    }
+}
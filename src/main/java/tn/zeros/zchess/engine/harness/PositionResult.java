@@ -0,0 +1,24 @@
+package tn.zeros.zchess.engine.harness;
+
+/**
+ * Outcome of one test suite position.
+ *
+ * @param move              the engine's move in UCI coordinates, or "0000" without a move
+ * @param timeToSolutionMs  time of the iteration from which the engine kept a best move, or -1 if unsolved
+ * @param depth             deepest completed iteration
+ * @param nodes             nodes searched by the completed iterations
+ * @param timeMs            wall time of the whole search
+ * @param nodesPerSecond    search speed over the completed iterations
+ */
+public record PositionResult(
+        String id,
+        String fen,
+        boolean solved,
+        String move,
+        long timeToSolutionMs,
+        int depth,
+        long nodes,
+        long timeMs,
+        long nodesPerSecond
+) {
+}
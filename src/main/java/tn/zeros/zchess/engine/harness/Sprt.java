@@ -0,0 +1,71 @@
+package tn.zeros.zchess.engine.harness;
+
+import java.util.Locale;
+
+/**
+ * Sequential probability ratio test between two Elo hypotheses, H0: {@code elo0} and H1: {@code elo1}.
+ * The log-likelihood ratio uses the normal approximation of the trinomial (win/draw/loss) score, so a
+ * match can stop as soon as either hypothesis is accepted with the requested error rates.
+ */
+public class Sprt {
+    private final double elo0;
+    private final double elo1;
+    private final double lowerBound;
+    private final double upperBound;
+
+    /**
+     * @param alpha false positive rate, accepting H1 when H0 holds
+     * @param beta  false negative rate, accepting H0 when H1 holds
+     */
+    public Sprt(double elo0, double elo1, double alpha, double beta) {
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        this.lowerBound = Math.log(beta / (1 - alpha));
+        this.upperBound = Math.log((1 - beta) / alpha);
+    }
+
+    public enum Decision {ACCEPT_H0, ACCEPT_H1, CONTINUE}
+
+    public double llr(int wins, int draws, int losses) {
+        // Half a game added to each outcome keeps one-sided samples (all wins, say) from having zero variance
+        double w = wins + 0.5, d = draws + 0.5, l = losses + 0.5;
+        double n = w + d + l;
+        double score = (w + d / 2) / n;
+        double variance = (w * Math.pow(1 - score, 2) + d * Math.pow(0.5 - score, 2) + l * Math.pow(score, 2)) / n;
+        double s0 = expectedScore(elo0);
+        double s1 = expectedScore(elo1);
+        return (wins + draws + losses) * (s1 - s0) * (2 * score - s0 - s1) / (2 * variance);
+    }
+
+    public Decision decide(int wins, int draws, int losses) {
+        double llr = llr(wins, draws, losses);
+        if (llr >= upperBound) return Decision.ACCEPT_H1;
+        if (llr <= lowerBound) return Decision.ACCEPT_H0;
+        return Decision.CONTINUE;
+    }
+
+    public double getLowerBound() {
+        return lowerBound;
+    }
+
+    public double getUpperBound() {
+        return upperBound;
+    }
+
+    public static double expectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    /**
+     * @return the Elo difference for a score, clamped away from the infinite 0% and 100% ends
+     */
+    public static double elo(double score) {
+        double clamped = Math.max(1e-6, Math.min(score, 1 - 1e-6));
+        return -400 * Math.log10(1 / clamped - 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "SPRT elo0=%.1f elo1=%.1f bounds [%.2f, %.2f]", elo0, elo1, lowerBound, upperBound);
+    }
+}
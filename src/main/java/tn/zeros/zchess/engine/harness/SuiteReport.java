@@ -0,0 +1,157 @@
+package tn.zeros.zchess.engine.harness;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Results of a test suite run, written as JSON or CSV depending on the file extension, and read back to
+ * compare two runs. CSV fields are not quoted; EPD ids and FENs never contain commas.
+ */
+public record SuiteReport(List<PositionResult> results) {
+    private static final String CSV_HEADER = "id,fen,solved,move,timeToSolutionMs,depth,nodes,timeMs,nps";
+    private static final Pattern JSON_FIELD = Pattern.compile("\"(\\w+)\":\\s*(\"(?:[^\"\\\\]|\\\\.)*\"|[^,}\\s]+)");
+
+    public SuiteReport {
+        results = List.copyOf(results);
+    }
+
+    public int solvedCount() {
+        return (int) results.stream().filter(PositionResult::solved).count();
+    }
+
+    public long totalNodes() {
+        return results.stream().mapToLong(PositionResult::nodes).sum();
+    }
+
+    /**
+     * @return nodes per second of a single search thread, averaged over the positions' search times
+     */
+    public long nodesPerSecond() {
+        long searchMs = results.stream().mapToLong(PositionResult::timeMs).sum();
+        return searchMs > 0 ? totalNodes() * 1000 / searchMs : 0;
+    }
+
+    public String summary() {
+        int total = results.size();
+        return String.format(Locale.ROOT, "Test Suite Results: %d/%d (%.1f%%), %d nodes, %d nps",
+                solvedCount(), total, total == 0 ? 0.0 : 100.0 * solvedCount() / total, totalNodes(), nodesPerSecond());
+    }
+
+    public void write(Path path) throws IOException {
+        Files.writeString(path, isCsv(path) ? toCsv() : toJson());
+    }
+
+    public static SuiteReport read(Path path) throws IOException {
+        List<String> lines = Files.readAllLines(path);
+        List<PositionResult> results = new ArrayList<>();
+        if (isCsv(path)) {
+            for (String line : lines.subList(Math.min(1, lines.size()), lines.size())) {
+                if (line.isBlank()) continue;
+                String[] fields = line.split(",", -1);
+                results.add(new PositionResult(fields[0], fields[1], Boolean.parseBoolean(fields[2]), fields[3],
+                        Long.parseLong(fields[4]), Integer.parseInt(fields[5]), Long.parseLong(fields[6]),
+                        Long.parseLong(fields[7]), Long.parseLong(fields[8])));
+            }
+        } else {
+            // One result object per line, as written by toJson
+            for (String line : lines) {
+                if (!line.contains("\"id\"")) continue;
+                Map<String, String> fields = new HashMap<>();
+                Matcher matcher = JSON_FIELD.matcher(line);
+                while (matcher.find()) {
+                    fields.put(matcher.group(1), unquote(matcher.group(2)));
+                }
+                results.add(new PositionResult(fields.get("id"), fields.get("fen"), Boolean.parseBoolean(fields.get("solved")),
+                        fields.get("move"), Long.parseLong(fields.get("timeToSolutionMs")), Integer.parseInt(fields.get("depth")),
+                        Long.parseLong(fields.get("nodes")), Long.parseLong(fields.get("timeMs")), Long.parseLong(fields.get("nps"))));
+            }
+        }
+        return new SuiteReport(results);
+    }
+
+    public String toJson() {
+        StringBuilder sb = new StringBuilder("{\n");
+        sb.append("  \"solved\": ").append(solvedCount()).append(",\n");
+        sb.append("  \"total\": ").append(results.size()).append(",\n");
+        sb.append("  \"nodes\": ").append(totalNodes()).append(",\n");
+        sb.append("  \"nps\": ").append(nodesPerSecond()).append(",\n");
+        sb.append("  \"results\": [\n");
+        for (int i = 0; i < results.size(); i++) {
+            PositionResult result = results.get(i);
+            sb.append("    {\"id\": ").append(quote(result.id()))
+                    .append(", \"fen\": ").append(quote(result.fen()))
+                    .append(", \"solved\": ").append(result.solved())
+                    .append(", \"move\": ").append(quote(result.move()))
+                    .append(", \"timeToSolutionMs\": ").append(result.timeToSolutionMs())
+                    .append(", \"depth\": ").append(result.depth())
+                    .append(", \"nodes\": ").append(result.nodes())
+                    .append(", \"timeMs\": ").append(result.timeMs())
+                    .append(", \"nps\": ").append(result.nodesPerSecond())
+                    .append(i + 1 < results.size() ? "},\n" : "}\n");
+        }
+        return sb.append("  ]\n}\n").toString();
+    }
+
+    public String toCsv() {
+        StringBuilder sb = new StringBuilder(CSV_HEADER).append('\n');
+        for (PositionResult result : results) {
+            sb.append(result.id()).append(',')
+                    .append(result.fen()).append(',')
+                    .append(result.solved()).append(',')
+                    .append(result.move()).append(',')
+                    .append(result.timeToSolutionMs()).append(',')
+                    .append(result.depth()).append(',')
+                    .append(result.nodes()).append(',')
+                    .append(result.timeMs()).append(',')
+                    .append(result.nodesPerSecond()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Compares this run with an earlier one, matching positions by id.
+     */
+    public Diff diff(SuiteReport baseline) {
+        Map<String, PositionResult> before = new HashMap<>();
+        baseline.results().forEach(result -> before.put(result.id(), result));
+
+        List<String> newlySolved = new ArrayList<>();
+        List<String> newlyFailed = new ArrayList<>();
+        for (PositionResult result : results) {
+            PositionResult previous = before.get(result.id());
+            if (previous == null || previous.solved() == result.solved()) continue;
+            (result.solved() ? newlySolved : newlyFailed).add(result.id());
+        }
+        return new Diff(baseline.solvedCount(), solvedCount(), newlySolved, newlyFailed);
+    }
+
+    public record Diff(int solvedBefore, int solvedAfter, List<String> newlySolved, List<String> newlyFailed) {
+        public String summary() {
+            return String.format(Locale.ROOT, "Solved %d -> %d (%+d)%n  Newly solved: %s%n  Newly failed: %s",
+                    solvedBefore, solvedAfter, solvedAfter - solvedBefore,
+                    newlySolved.isEmpty() ? "-" : String.join(" ", newlySolved),
+                    newlyFailed.isEmpty() ? "-" : String.join(" ", newlyFailed));
+        }
+    }
+
+    private static boolean isCsv(Path path) {
+        return path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static String unquote(String value) {
+        if (!value.startsWith("\"")) return value;
+        return value.substring(1, value.length() - 1).replace("\\\"", "\"").replace("\\\\", "\\");
+    }
+}
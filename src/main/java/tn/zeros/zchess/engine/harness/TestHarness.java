@@ -3,46 +3,181 @@ package tn.zeros.zchess.engine.harness;
 import tn.zeros.zchess.core.model.BoardState;
 import tn.zeros.zchess.core.model.Move;
 import tn.zeros.zchess.core.service.FenService;
+import tn.zeros.zchess.core.util.ChessConstants;
+import tn.zeros.zchess.engine.evaluate.EvaluatorType;
 import tn.zeros.zchess.engine.models.EngineModel;
+import tn.zeros.zchess.engine.models.ModelV1;
+import tn.zeros.zchess.engine.search.SearchInfo;
+import tn.zeros.zchess.engine.search.SearchLimits;
 
 import java.io.IOException;
+import java.io.PrintStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+/**
+ * Runs an EPD test suite on a pool of workers. Each worker owns its own engine, so a suite run scales
+ * with the number of cores, and positions are handed out one at a time so slow positions don't hold
+ * back a whole batch.
+ * <p>
+ * From the command line: {@code TestHarness <suite.epd> [--workers n] [--time ms] [--depth d]
+ * [--nodes n] [--nnue] [--report out.json|out.csv] [--baseline previous.json|previous.csv]}.
+ */
 public class TestHarness {
-    public static void runTestSuite(EngineModel model, Path epdPath) throws IOException {
-        List<String> epdLines = Files.readAllLines(epdPath);
-        int total = epdLines.size();
-        int solved = 0;
-
-        for (String line : epdLines) {
-            TestPosition position = TestPosition.fromEpd(line);
-            BoardState testState = new BoardState();
-            model.reset();
-            FenService.parseFEN(position.fen(), testState);
-
-            int move = model.generateMove(testState);
-
-            if (isMoveCorrect(position, move)) {
-                solved++;
-                System.out.printf("✅ %s: Correct%n", position.id());
-            } else {
-                System.out.printf("❌ %s: Failed%n", position.id());
+    private final Supplier<EngineModel> modelFactory;
+    private final int workers;
+    private final PrintStream log;
+
+    /**
+     * @param modelFactory creates the engine of each worker
+     * @param log          receives one line per finished position, or {@code null} for none
+     */
+    public TestHarness(Supplier<EngineModel> modelFactory, int workers, PrintStream log) {
+        this.modelFactory = modelFactory;
+        this.workers = Math.max(1, workers);
+        this.log = log;
+    }
+
+    public static List<TestPosition> loadSuite(Path epdPath) throws IOException {
+        try (Stream<String> lines = Files.lines(epdPath)) {
+            return lines.map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .map(TestPosition::fromEpd)
+                    .toList();
+        }
+    }
+
+    public SuiteReport run(List<TestPosition> positions, SearchLimits limits) {
+        PositionResult[] results = new PositionResult[positions.size()];
+        AtomicInteger next = new AtomicInteger();
+        int workerCount = Math.min(workers, Math.max(1, positions.size()));
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < workerCount; i++) {
+            tasks.add(() -> {
+                EngineModel model = modelFactory.get();
+                int index;
+                while ((index = next.getAndIncrement()) < positions.size()) {
+                    results[index] = solve(model, positions.get(index), limits);
+                    logResult(results[index]);
+                }
+                return null;
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(workerCount);
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Test suite interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Test suite worker failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
         }
+        return new SuiteReport(Arrays.asList(results));
+    }
+
+    private static PositionResult solve(EngineModel model, TestPosition position, SearchLimits limits) {
+        BoardState state = new BoardState();
+        model.reset();
+        FenService.parseFEN(position.fen(), state);
+
+        // Time to solution: when the best move became correct for the last time
+        SearchInfo[] lastInfo = new SearchInfo[1];
+        long[] solvedSinceMs = {-1};
+        model.setInfoListener(info -> {
+            lastInfo[0] = info;
+            boolean solved = info.pv().length > 0 && position.isSolvedBy(info.pv()[0]);
+            if (!solved) {
+                solvedSinceMs[0] = -1;
+            } else if (solvedSinceMs[0] < 0) {
+                solvedSinceMs[0] = info.timeMs();
+            }
+        });
 
-        System.out.printf("%nTest Suite Results: %d/%d (%.1f%%)%n",
-                solved, total, (100.0 * solved) / total);
+        long start = System.nanoTime();
+        int move = model.generateMove(state, limits);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        model.setInfoListener(null);
+
+        boolean solved = position.isSolvedBy(move);
+        long timeToSolutionMs = !solved ? -1 : solvedSinceMs[0] >= 0 ? solvedSinceMs[0] : elapsedMs;
+        SearchInfo info = lastInfo[0];
+        return new PositionResult(position.id(), position.fen(), solved,
+                move == Move.NULL_MOVE ? "0000" : ChessConstants.moveToUCI(move), timeToSolutionMs,
+                info == null ? 0 : info.depth(), info == null ? 0 : info.nodes(), elapsedMs,
+                info == null ? 0 : info.nodesPerSecond());
     }
 
-    private static boolean isMoveCorrect(TestPosition position, int move) {
-        if (move == Move.NULL_MOVE) return false;
-        String engineMove = Move.toAlgebraic(move)
-                .toLowerCase();
-        return position.correctMoves().stream()
-                .map(correct -> correct.toLowerCase().replace("+", "").replace("#", ""))
-                .anyMatch(engineMove::equals);
+    private void logResult(PositionResult result) {
+        if (log == null) return;
+        synchronized (log) {
+            if (result.solved()) {
+                log.printf(Locale.ROOT, "%-10s solved  %-6s in %6d ms (depth %d)%n",
+                        result.id(), result.move(), result.timeToSolutionMs(), result.depth());
+            } else {
+                log.printf(Locale.ROOT, "%-10s FAILED  %-6s (depth %d)%n", result.id(), result.move(), result.depth());
+            }
+        }
     }
 
-}
\ No newline at end of file
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: TestHarness <suite.epd> [--workers n] [--time ms] [--depth d] [--nodes n] "
+                    + "[--nnue] [--report file] [--baseline file]");
+            System.exit(2);
+        }
+
+        Path suite = Path.of(args[0]);
+        int workers = Runtime.getRuntime().availableProcessors();
+        SearchLimits limits = SearchLimits.infinite();
+        EvaluatorType evaluatorType = EvaluatorType.CLASSICAL;
+        Path reportPath = null;
+        Path baselinePath = null;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--workers" -> workers = Integer.parseInt(args[++i]);
+                case "--time" -> limits = limits.withTime(Long.parseLong(args[++i]));
+                case "--depth" -> limits = limits.withDepth(Integer.parseInt(args[++i]));
+                case "--nodes" -> limits = limits.withNodes(Long.parseLong(args[++i]));
+                case "--nnue" -> evaluatorType = EvaluatorType.NNUE;
+                case "--report" -> reportPath = Path.of(args[++i]);
+                case "--baseline" -> baselinePath = Path.of(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (limits == SearchLimits.infinite()) {
+            limits = SearchLimits.ofTime(1000);
+        }
+
+        EvaluatorType evaluator = evaluatorType;
+        TestHarness harness = new TestHarness(() -> new ModelV1(SearchLimits.NO_LIMIT, 1, evaluator), workers, System.out);
+        long start = System.nanoTime();
+        SuiteReport report = harness.run(loadSuite(suite), limits);
+        System.out.printf(Locale.ROOT, "%n%s (%s, %d workers, %.1f s)%n",
+                report.summary(), limits, workers, (System.nanoTime() - start) / 1e9);
+
+        if (baselinePath != null) {
+            System.out.println(report.diff(SuiteReport.read(baselinePath)).summary());
+        }
+        if (reportPath != null) {
+            report.write(reportPath);
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package tn.zeros.zchess.engine.harness;
 
 
+import tn.zeros.zchess.core.model.Move;
+import tn.zeros.zchess.core.model.Piece;
+import tn.zeros.zchess.core.service.FenService;
+
 import java.util.HashSet;
 import java.util.Set;
 import java.util.regex.Matcher;
@@ -11,6 +15,8 @@ public record TestPosition(
         Set<String> correctMoves,
         String id
 ) {
+    private static final Pattern SAN_PATTERN = Pattern.compile("([NBRQK])?([a-h])?([1-8])?x?([a-h][1-8])(?:=?([NBRQ]))?");
+
     public static TestPosition fromEpd(String epdLine) {
         // Regular expression to extract the best moves (bm)
         Pattern bmPattern = Pattern.compile("bm\\s+([^;]+);");
@@ -55,8 +61,8 @@ public record TestPosition(
             // Handle multi-move entries by splitting on whitespace.
             String[] moveTokens = movesStr.split("\\s+");
             for (String move : moveTokens) {
-                // Clean move: remove any unwanted characters and convert to lowercase.
-                String cleanMove = move.replaceAll("[^a-zA-Z0-9+#=]", "").toLowerCase();
+                // Clean move: remove any unwanted characters, keeping the case that tells pieces from files.
+                String cleanMove = move.replaceAll("[^a-zA-Z0-9+#=-]", "");
                 if (!cleanMove.isEmpty()) {
                     moves.add(cleanMove);
                 }
@@ -64,4 +70,38 @@ public record TestPosition(
         }
         return moves;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return whether {@code move} is one of the best moves
+     */
+    public boolean isSolvedBy(int move) {
+        if (move == Move.NULL_MOVE) return false;
+        return correctMoves.stream().anyMatch(san -> matchesSan(move, san));
+    }
+
+    /**
+     * Matches a move against standard algebraic notation. A file or rank disambiguating the move is
+     * checked against its origin square; check and capture marks are ignored.
+     */
+    static boolean matchesSan(int move, String san) {
+        String cleanSan = san.replaceAll("[+#!?]", "");
+        if (cleanSan.startsWith("O-O") || cleanSan.startsWith("0-0")) {
+            boolean queenside = cleanSan.length() > 3;
+            return Move.isCastling(move) && queenside == ((Move.getTo(move) & 7) == 2);
+        }
+
+        Matcher matcher = SAN_PATTERN.matcher(cleanSan);
+        if (!matcher.matches()) return false;
+        char pieceSymbol = matcher.group(1) == null ? 'P' : matcher.group(1).charAt(0);
+        if (Character.toUpperCase(Piece.getSymbol(Move.getPiece(move))) != pieceSymbol) return false;
+        if (!FenService.squareToAlgebraic(Move.getTo(move)).equals(matcher.group(4))) return false;
+
+        String from = FenService.squareToAlgebraic(Move.getFrom(move));
+        if (matcher.group(2) != null && from.charAt(0) != matcher.group(2).charAt(0)) return false;
+        if (matcher.group(3) != null && from.charAt(1) != matcher.group(3).charAt(0)) return false;
+
+        if (matcher.group(5) == null) return !Move.isPromotion(move);
+        return Move.isPromotion(move)
+                && Character.toUpperCase(Piece.getSymbol(Move.getPromotionPiece(move))) == matcher.group(5).charAt(0);
+    }
+}
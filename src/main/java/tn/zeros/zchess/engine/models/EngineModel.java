@@ -1,9 +1,63 @@
 package tn.zeros.zchess.engine.models;
 
 import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.engine.search.SearchInfo;
+import tn.zeros.zchess.engine.search.SearchLimits;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public interface EngineModel {
     int generateMove(BoardState boardState);
 
+    /**
+     * Generates a move within a timed game, budgeting the time from the side to move's clock.
+     */
+    int generateMove(BoardState boardState, long clockMs, long incrementMs);
+
+    /**
+     * Like {@link #generateMove(BoardState, long, long)}, on another thread. A {@link #stop()} issued after
+     * this call returns aborts the search, even if it hasn't started yet.
+     */
+    default CompletableFuture<Integer> generateMoveAsync(BoardState boardState, long clockMs, long incrementMs) {
+        return CompletableFuture.supplyAsync(() -> generateMove(boardState, clockMs, incrementMs));
+    }
+
+    /**
+     * Generates a move within explicit time, depth or node limits, as used by test suites.
+     */
+    int generateMove(BoardState boardState, SearchLimits limits);
+
     void reset();
+
+    /**
+     * Aborts a move generation running on another thread; its result should be discarded.
+     */
+    void stop();
+
+    /**
+     * Starts searching, in the background and on the opponent's time, the position after the reply the
+     * model expects. The search keeps going until {@link #ponderHit()} turns it into a normal timed search,
+     * whose move completes the returned future, or until {@link #stop()} aborts it.
+     *
+     * @param boardState position after the expected reply, with the model to move
+     * @param clockMs    the model's remaining time
+     */
+    CompletableFuture<Integer> ponder(BoardState boardState, long clockMs, long incrementMs);
+
+    /**
+     * The expected reply was played: the running ponder search becomes the search for the next move.
+     */
+    void ponderHit();
+
+    /**
+     * @return the line the last generated move was based on, best move first; empty when unknown
+     */
+    int[] getPrincipalVariation();
+
+    /**
+     * Registers a listener called after each completed search iteration, or {@code null} to remove it.
+     * Models without iterations never call it.
+     */
+    void setInfoListener(Consumer<SearchInfo> infoListener);
 }
\ No newline at end of file
@@ -1,25 +1,94 @@
 package tn.zeros.zchess.engine.models;
 
 import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.engine.evaluate.EvaluatorType;
+import tn.zeros.zchess.engine.search.SearchInfo;
+import tn.zeros.zchess.engine.search.SearchLimits;
 import tn.zeros.zchess.engine.search.SearchService;
 import tn.zeros.zchess.engine.search.SearchServiceV1;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
 public class ModelV1 implements EngineModel {
     protected final SearchService searchService;
 
     public ModelV1(long searchTimeMs) {
-        this.searchService = new SearchServiceV1(searchTimeMs);
+        this(searchTimeMs, 1);
+    }
+
+    public ModelV1(long searchTimeMs, int threadCount) {
+        this(searchTimeMs, threadCount, EvaluatorType.CLASSICAL);
+    }
+
+    public ModelV1(long searchTimeMs, int threadCount, EvaluatorType evaluatorType) {
+        SearchServiceV1 searchServiceV1 = new SearchServiceV1(searchTimeMs, evaluatorType);
+        searchServiceV1.setThreadCount(threadCount);
+        this.searchService = searchServiceV1;
     }
 
+    // Serialized so a search started right after a cancellation waits for the stopped one to unwind
     @Override
-    public int generateMove(BoardState boardState) {
+    public synchronized int generateMove(BoardState boardState) {
         BoardState newState = boardState.clone();
         return searchService.startSearch(newState);
     }
 
+    @Override
+    public synchronized int generateMove(BoardState boardState, long clockMs, long incrementMs) {
+        BoardState newState = boardState.clone();
+        return searchService.startSearch(newState, SearchLimits.ofClock(clockMs, incrementMs, 0));
+    }
+
+    @Override
+    public synchronized int generateMove(BoardState boardState, SearchLimits limits) {
+        BoardState newState = boardState.clone();
+        return searchService.startSearch(newState, limits);
+    }
+
+    @Override
+    public CompletableFuture<Integer> generateMoveAsync(BoardState boardState, long clockMs, long incrementMs) {
+        BoardState newState = boardState.clone();
+        long token = searchService.newSearchToken(); // Before the search thread starts, so an early stop isn't lost
+        return CompletableFuture.supplyAsync(() -> search(newState, SearchLimits.ofClock(clockMs, incrementMs, 0), token));
+    }
+
+    @Override
+    public CompletableFuture<Integer> ponder(BoardState boardState, long clockMs, long incrementMs) {
+        BoardState newState = boardState.clone();
+        // Before the search thread starts, so an early ponder hit or miss isn't lost
+        long token = searchService.newSearchToken();
+        searchService.startPondering();
+        return CompletableFuture.supplyAsync(() -> search(newState, SearchLimits.ofClock(clockMs, incrementMs, 0), token));
+    }
+
+    private synchronized int search(BoardState boardState, SearchLimits limits, long token) {
+        return searchService.startSearch(boardState, limits, token);
+    }
+
+    @Override
+    public void ponderHit() {
+        searchService.ponderHit();
+    }
+
     @Override
     public void reset() {
         searchService.clear();
     }
 
+    @Override
+    public void stop() {
+        searchService.stop();
+    }
+
+    @Override
+    public int[] getPrincipalVariation() {
+        return searchService.getPrincipalVariation();
+    }
+
+    @Override
+    public void setInfoListener(Consumer<SearchInfo> infoListener) {
+        searchService.setInfoListener(infoListener);
+    }
+
 }
\ No newline at end of file
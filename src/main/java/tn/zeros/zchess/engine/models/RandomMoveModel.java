@@ -3,8 +3,12 @@ package tn.zeros.zchess.engine.models;
 import tn.zeros.zchess.core.logic.generation.MoveGenerator;
 import tn.zeros.zchess.core.model.BoardState;
 import tn.zeros.zchess.core.model.Move;
+import tn.zeros.zchess.engine.search.SearchInfo;
+import tn.zeros.zchess.engine.search.SearchLimits;
 
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class RandomMoveModel implements EngineModel {
     private static final Random random = new Random();
@@ -17,7 +21,39 @@ public class RandomMoveModel implements EngineModel {
         return Move.NULL_MOVE;
     }
 
+    @Override
+    public int generateMove(BoardState boardState, long clockMs, long incrementMs) {
+        return generateMove(boardState);
+    }
+
+    @Override
+    public int generateMove(BoardState boardState, SearchLimits limits) {
+        return generateMove(boardState);
+    }
+
+    @Override
+    public CompletableFuture<Integer> ponder(BoardState boardState, long clockMs, long incrementMs) {
+        return CompletableFuture.completedFuture(generateMove(boardState));
+    }
+
+    @Override
+    public void ponderHit() {
+    }
+
     @Override
     public void reset() {
     }
+
+    @Override
+    public void stop() {
+    }
+
+    @Override
+    public int[] getPrincipalVariation() {
+        return new int[0];
+    }
+
+    @Override
+    public void setInfoListener(Consumer<SearchInfo> infoListener) {
+    }
 }
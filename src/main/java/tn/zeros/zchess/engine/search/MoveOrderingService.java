@@ -1,6 +1,5 @@
 package tn.zeros.zchess.engine.search;
 
-import tn.zeros.zchess.core.logic.generation.MoveGenerator;
 import tn.zeros.zchess.core.model.BoardState;
 import tn.zeros.zchess.core.model.Move;
 import tn.zeros.zchess.core.model.Piece;
@@ -15,14 +14,13 @@ public class MoveOrderingService {
     private static final int ATTACKED_PENALTY = -200000;
     private static final int KILLER_MOVE_BONUS = 900000;
     private static final int HISTORY_SCORE_BONUS_FACTOR = 100;
-    private final int[] moveScores;
     private final int[][] historyScores;
     private final int[] killerMoves;
+    private int maxHistoryScore;
 
     public MoveOrderingService() {
-        moveScores = new int[SearchUtils.MAX_MOVES];
         historyScores = new int[7][64];
-        killerMoves = new int[SearchUtils.MAX_DEPTH];
+        killerMoves = new int[SearchUtils.MAX_PLY];
         clearKillerMoves();
     }
 
@@ -42,77 +40,76 @@ public class MoveOrderingService {
         int pieceType = Piece.getType(Move.getPiece(move));
         int toSquare = Move.getTo(move);
         historyScores[pieceType][toSquare] += depth * HISTORY_SCORE_BONUS_FACTOR; // Bonus scaled by depth
+        maxHistoryScore = Math.max(maxHistoryScore, historyScores[pieceType][toSquare]);
+    }
+
+    /**
+     * Whether the move's history score is in the upper half of the scores recorded so far.
+     */
+    public boolean hasGoodHistory(int move) {
+        int score = historyScores[Piece.getType(Move.getPiece(move))][Move.getTo(move)];
+        return score > 0 && score * 2 >= maxHistoryScore;
     }
 
     public void clearHistoryScores() {
         for (int i = 0; i < historyScores.length; i++) {
             Arrays.fill(historyScores[i], 0);
         }
+        maxHistoryScore = 0;
     }
 
-    public void orderMoves(MoveGenerator.MoveList moveList, BoardState state, int currentPly, int ttMove) {
-        Arrays.fill(moveScores, 0, moveList.size, 0);
-        int[] moves = moveList.moves;
-        int size = moveList.size;
-        int killerMove = killerMoves[currentPly];
-
-        for (int i = 0; i < size; i++) {
-            int move = moves[i];
-            int movePieceType = Piece.getType(Move.getPiece(move));
-            int capturedPieceType = Piece.getType(Move.getCapturedPiece(move));
-            int toSquare = Move.getTo(move);
-            int moveScore = 0;
-
-            // Transposition Table move bonus (highest priority)
-            if (move == ttMove && ttMove != Move.NULL_MOVE) {
-                moveScore += CAPTURE_BONUS + PROMOTION_BONUS + KILLER_MOVE_BONUS + 10000000; // Very high bonus
-            } else { // Only apply other heuristics if it's not the TT move (TT move is already best guess)
-
-                // MVV-LVA scoring for captures
-                if (capturedPieceType != Piece.NONE) {
-                    moveScore += CAPTURE_BONUS + (10 * EvalUtils.getPieceTypeValue(capturedPieceType) - EvalUtils.getPieceTypeValue(movePieceType));
-                }
-
-                // Killer move bonus
-                if (move == killerMove && killerMove != Move.NULL_MOVE) {
-                    moveScore += KILLER_MOVE_BONUS;
-                }
-
-                // History Heuristic bonus
-                moveScore += historyScores[movePieceType][toSquare] / HISTORY_SCORE_BONUS_FACTOR; // Scale down history score
-
-                // Prioritize promoting a pawn
-                if (Move.isPromotion(move)) {
-                    moveScore += PROMOTION_BONUS + EvalUtils.getPieceTypeValue(Piece.getType(Move.getPromotionPiece(move)));
-                }
-
-                // Attacked square penalty
-                boolean isWhite = state.isWhiteToMove();
-                long enemyPawns = state.getPieces(Piece.PAWN, isWhite ? Piece.BLACK : Piece.WHITE);
-                if ((PrecomputedMoves.getPawnAttacks(toSquare, isWhite) & enemyPawns) != 0) {
-                    moveScore += ATTACKED_PENALTY;
-                }
-            }
-            moveScores[i] = moveScore;
-        }
+    public int getKillerMove(int ply) {
+        return killerMoves[ply];
+    }
+
+    /**
+     * MVV-LVA score of a capture, promotions included.
+     */
+    public int scoreCapture(int move) {
+        int movePieceType = Piece.getType(Move.getPiece(move));
+        int capturedPieceType = Piece.getType(Move.getCapturedPiece(move));
+        int moveScore = CAPTURE_BONUS + (10 * EvalUtils.getPieceTypeValue(capturedPieceType) - EvalUtils.getPieceTypeValue(movePieceType));
 
-        sort(moves, moveScores, size);
+        if (Move.isPromotion(move)) {
+            moveScore += EvalUtils.getPieceTypeValue(Piece.getType(Move.getPromotionPiece(move)));
+        }
+        return moveScore;
     }
 
-    private void sort(int[] moves, int[] scores, int size) {
-        for (int i = 1; i < size; i++) {
-            int currentMove = moves[i];
-            int currentScore = scores[i];
-            int j = i - 1;
+    /**
+     * History score of a quiet move, with a bonus for promotions and a penalty for stepping onto a square
+     * attacked by an enemy pawn.
+     */
+    public int scoreQuiet(int move, BoardState state) {
+        int movePieceType = Piece.getType(Move.getPiece(move));
+        int toSquare = Move.getTo(move);
+        int moveScore = historyScores[movePieceType][toSquare] / HISTORY_SCORE_BONUS_FACTOR; // Scale down history score
+
+        // Prioritize promoting a pawn
+        if (Move.isPromotion(move)) {
+            moveScore += PROMOTION_BONUS + EvalUtils.getPieceTypeValue(Piece.getType(Move.getPromotionPiece(move)));
+        }
 
-            while (j >= 0 && scores[j] < currentScore) {
-                moves[j + 1] = moves[j];
-                scores[j + 1] = scores[j];
-                j--;
-            }
+        // Attacked square penalty
+        boolean isWhite = state.isWhiteToMove();
+        long enemyPawns = state.getPieces(Piece.PAWN, isWhite ? Piece.BLACK : Piece.WHITE);
+        if ((PrecomputedMoves.getPawnAttacks(toSquare, isWhite) & enemyPawns) != 0) {
+            moveScore += ATTACKED_PENALTY;
+        }
+        return moveScore;
+    }
 
-            moves[j + 1] = currentMove;
-            scores[j + 1] = currentScore;
+    /**
+     * Scores any move when the whole move list is ordered at once (check evasions).
+     */
+    public int scoreMove(int move, BoardState state, int ply) {
+        if (Move.getCapturedPiece(move) != Piece.NONE) {
+            return scoreCapture(move);
+        }
+        int moveScore = scoreQuiet(move, state);
+        if (move == killerMoves[ply]) {
+            moveScore += KILLER_MOVE_BONUS;
         }
+        return moveScore;
     }
 }
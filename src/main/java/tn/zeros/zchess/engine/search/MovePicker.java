@@ -0,0 +1,171 @@
+package tn.zeros.zchess.engine.search;
+
+import tn.zeros.zchess.core.logic.generation.MoveGenerator;
+import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.core.model.Move;
+import tn.zeros.zchess.core.model.Piece;
+
+/**
+ * Staged move picker: yields the TT move, good captures, the killer move, quiets by history and finally
+ * bad captures. Captures are ordered by MVV-LVA and split into good and bad by static exchange evaluation.
+ * Each stage is generated only once the previous one is exhausted, and moves are selected lazily (best
+ * remaining first) instead of sorting the whole list, so early beta cutoffs skip most of the generation
+ * and ordering work.
+ * <p>
+ * One picker is kept per ply and reused through {@link #init}.
+ */
+public class MovePicker {
+    private static final int STAGE_TT = 0;
+    private static final int STAGE_GEN_CAPTURES = 1;
+    private static final int STAGE_GOOD_CAPTURES = 2;
+    private static final int STAGE_KILLER = 3;
+    private static final int STAGE_GEN_QUIETS = 4;
+    private static final int STAGE_QUIETS = 5;
+    private static final int STAGE_BAD_CAPTURES = 6;
+    private static final int STAGE_GEN_EVASIONS = 7;
+    private static final int STAGE_EVASIONS = 8;
+    private static final int STAGE_DONE = 9;
+
+    private final MoveOrderingService moveOrderingService;
+    private final MoveGenerator.MoveList moves = new MoveGenerator.MoveList(SearchUtils.MAX_MOVES);
+    private final MoveGenerator.MoveList badCaptures = new MoveGenerator.MoveList(SearchUtils.MAX_MOVES);
+    private final MoveGenerator.MoveList scratch = new MoveGenerator.MoveList(SearchUtils.MAX_MOVES);
+    private final int[] scores = new int[SearchUtils.MAX_MOVES];
+
+    private BoardState state;
+    private int ply;
+    private int ttMove;
+    private int killerMove;
+    private boolean inCheck;
+    private boolean capturesOnly;
+    private int stage;
+    private int index;
+
+    public MovePicker(MoveOrderingService moveOrderingService) {
+        this.moveOrderingService = moveOrderingService;
+    }
+
+    /**
+     * Prepares the picker for a new node.
+     *
+     * @param inCheck      when true, all evasions are generated in a single stage
+     * @param capturesOnly quiescence mode: only captures that don't lose material are yielded (unless in check)
+     */
+    public void init(BoardState state, int ttMove, int ply, boolean inCheck, boolean capturesOnly) {
+        this.state = state;
+        this.ply = ply;
+        this.ttMove = ttMove;
+        this.killerMove = Move.NULL_MOVE;
+        this.inCheck = inCheck;
+        this.capturesOnly = capturesOnly && !inCheck;
+        this.stage = STAGE_TT;
+        this.index = 0;
+        this.badCaptures.clear();
+
+        if (this.capturesOnly && Move.getCapturedPiece(ttMove) == Piece.NONE) {
+            this.ttMove = Move.NULL_MOVE; // Quiescence only searches captures
+        }
+        if (this.ttMove != Move.NULL_MOVE && !MoveGenerator.isLegalMove(state, this.ttMove, scratch)) {
+            this.ttMove = Move.NULL_MOVE;
+        }
+        if (this.ttMove == Move.NULL_MOVE) {
+            this.stage = inCheck ? STAGE_GEN_EVASIONS : STAGE_GEN_CAPTURES;
+        }
+    }
+
+    /**
+     * @return the next legal move, or {@link Move#NULL_MOVE} once all moves have been yielded
+     */
+    public int nextMove() {
+        while (true) {
+            switch (stage) {
+                case STAGE_TT -> {
+                    stage = inCheck ? STAGE_GEN_EVASIONS : STAGE_GEN_CAPTURES;
+                    return ttMove;
+                }
+                case STAGE_GEN_CAPTURES -> {
+                    MoveGenerator.generateMoves(state, moves, MoveGenerator.CAPTURES);
+                    for (int i = 0; i < moves.size; i++) {
+                        scores[i] = moveOrderingService.scoreCapture(moves.moves[i]);
+                    }
+                    index = 0;
+                    stage = STAGE_GOOD_CAPTURES;
+                }
+                case STAGE_GOOD_CAPTURES -> {
+                    while (index < moves.size) {
+                        int move = pickBest();
+                        if (move == ttMove) continue;
+                        if (!StaticExchangeEvaluator.seeGE(state, move, 0)) {
+                            badCaptures.add(move);
+                            continue;
+                        }
+                        return move;
+                    }
+                    index = 0;
+                    stage = capturesOnly ? STAGE_DONE : STAGE_KILLER; // Quiescence prunes losing captures
+                }
+                case STAGE_KILLER -> {
+                    stage = STAGE_GEN_QUIETS;
+                    int killer = moveOrderingService.getKillerMove(ply);
+                    if (killer != ttMove && Move.getCapturedPiece(killer) == Piece.NONE
+                            && MoveGenerator.isLegalMove(state, killer, scratch)) {
+                        killerMove = killer;
+                        return killer;
+                    }
+                }
+                case STAGE_GEN_QUIETS -> {
+                    MoveGenerator.generateMoves(state, moves, MoveGenerator.QUIETS);
+                    for (int i = 0; i < moves.size; i++) {
+                        scores[i] = moveOrderingService.scoreQuiet(moves.moves[i], state);
+                    }
+                    index = 0;
+                    stage = STAGE_QUIETS;
+                }
+                case STAGE_QUIETS -> {
+                    while (index < moves.size) {
+                        int move = pickBest();
+                        if (move != ttMove && move != killerMove) return move;
+                    }
+                    index = 0;
+                    stage = STAGE_BAD_CAPTURES;
+                }
+                case STAGE_BAD_CAPTURES -> {
+                    if (index < badCaptures.size) return badCaptures.moves[index++];
+                    stage = STAGE_DONE;
+                }
+                case STAGE_GEN_EVASIONS -> {
+                    MoveGenerator.generateMoves(state, moves, MoveGenerator.ALL);
+                    for (int i = 0; i < moves.size; i++) {
+                        scores[i] = moveOrderingService.scoreMove(moves.moves[i], state, ply);
+                    }
+                    index = 0;
+                    stage = STAGE_EVASIONS;
+                }
+                case STAGE_EVASIONS -> {
+                    while (index < moves.size) {
+                        int move = pickBest();
+                        if (move != ttMove) return move;
+                    }
+                    stage = STAGE_DONE;
+                }
+                default -> {
+                    return Move.NULL_MOVE;
+                }
+            }
+        }
+    }
+
+    // Selection step: swap the best remaining move to the current index and return it
+    private int pickBest() {
+        int best = index;
+        for (int i = index + 1; i < moves.size; i++) {
+            if (scores[i] > scores[best]) best = i;
+        }
+        int move = moves.moves[best];
+        moves.moves[best] = moves.moves[index];
+        scores[best] = scores[index];
+        moves.moves[index] = move;
+        index++;
+        return move;
+    }
+}
@@ -0,0 +1,54 @@
+package tn.zeros.zchess.engine.search;
+
+import tn.zeros.zchess.core.model.Move;
+
+import java.util.Arrays;
+
+/**
+ * Triangular principal variation table. Row {@code ply} holds the best line found from that ply on; when
+ * a move raises alpha, the child's row is copied behind it. All rows are preallocated, so filling the
+ * table during search never allocates.
+ */
+public class PrincipalVariation {
+    private static final int SIZE = SearchUtils.MAX_DEPTH + 1;
+
+    private final int[][] table = new int[SIZE][SIZE];
+    private final int[] length = new int[SIZE];
+
+    /**
+     * Empties the line of a node, to be called when the node is entered.
+     */
+    public void clear(int ply) {
+        if (ply < SIZE) length[ply] = 0;
+    }
+
+    /**
+     * Makes {@code move} followed by the child's line the best line of the node.
+     */
+    public void update(int ply, int move) {
+        if (ply >= SIZE) return;
+        int[] row = table[ply];
+        row[0] = move;
+        int childLength = ply + 1 < SIZE ? Math.min(length[ply + 1], SIZE - 1) : 0;
+        if (childLength > 0) System.arraycopy(table[ply + 1], 0, row, 1, childLength);
+        length[ply] = childLength + 1;
+    }
+
+    /**
+     * @return the move the root line plays at {@code ply}, or {@link Move#NULL_MOVE} past its end
+     */
+    public int getMove(int ply) {
+        return ply < length[0] ? table[0][ply] : Move.NULL_MOVE;
+    }
+
+    public int getLength() {
+        return length[0];
+    }
+
+    /**
+     * @return a copy of the root line
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(table[0], length[0]);
+    }
+}
@@ -3,7 +3,6 @@ package tn.zeros.zchess.engine.search;
 public class SearchDebugConfig {
     private static final SearchDebugConfig INSTANCE = new SearchDebugConfig();
 
-    private boolean metricsEnabled = false;
     private boolean verboseLogging = false;
     private boolean iterationLogging = false;
     private boolean finalSummary = false;
@@ -16,11 +15,6 @@ public class SearchDebugConfig {
     }
 
     // Fluent setters
-    public SearchDebugConfig enableMetrics(boolean enable) {
-        this.metricsEnabled = enable;
-        return this;
-    }
-
     public SearchDebugConfig enableVerboseLogging(boolean enable) {
         this.verboseLogging = enable;
         return this;
@@ -37,10 +31,6 @@ public class SearchDebugConfig {
     }
 
     // Getters
-    public boolean isMetricsEnabled() {
-        return metricsEnabled;
-    }
-
     public boolean isVerboseLogging() {
         return verboseLogging;
     }
@@ -55,15 +45,13 @@ public class SearchDebugConfig {
 
     // Enable/disable all
     public SearchDebugConfig enableAll() {
-        return enableMetrics(true)
-                .enableVerboseLogging(true)
+        return enableVerboseLogging(true)
                 .enableIterationLogging(true)
                 .enableFinalSummary(true);
     }
 
     public SearchDebugConfig disableAll() {
-        return enableMetrics(false)
-                .enableVerboseLogging(false)
+        return enableVerboseLogging(false)
                 .enableIterationLogging(false)
                 .enableFinalSummary(false);
     }
@@ -0,0 +1,26 @@
+package tn.zeros.zchess.engine.search;
+
+/**
+ * Progress report of a completed iteration, as sent to a search's info listener.
+ *
+ * @param depth    iteration depth
+ * @param score    score of the best move for the side to move, in centipawns or as a mate score
+ * @param nodes    nodes searched so far by all threads
+ * @param timeMs   time since the search started
+ * @param pv       principal variation, best move first
+ * @param hashfull transposition table usage in permille
+ */
+public record SearchInfo(int depth, int score, long nodes, long timeMs, int[] pv, int hashfull) {
+    public long nodesPerSecond() {
+        return timeMs > 0 ? nodes * 1000 / timeMs : nodes * 1000;
+    }
+
+    /**
+     * @return moves until mate, negative when the side to move is mated, or 0 for a regular score
+     */
+    public int mateIn() {
+        if (!SearchUtils.isMateScore(score)) return 0;
+        int plies = SearchUtils.CHECKMATE_EVAL - Math.abs(score);
+        return score > 0 ? (plies + 1) / 2 : -(plies + 1) / 2;
+    }
+}
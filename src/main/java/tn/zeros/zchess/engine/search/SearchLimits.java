@@ -0,0 +1,131 @@
+package tn.zeros.zchess.engine.search;
+
+/**
+ * Conditions that end a search: wall time, node budget, depth and mate distance. Whichever is reached
+ * first stops the search; a search can also be stopped from another thread through
+ * {@link SearchServiceV1#stop()}. Instead of a fixed time, the game clock can be given, in which case a
+ * {@link TimeManager} budgets the move.
+ * <p>
+ * Limits are immutable; the {@code with*} methods return modified copies.
+ */
+public final class SearchLimits {
+    public static final long NO_LIMIT = 0;
+
+    private static final SearchLimits INFINITE = new SearchLimits(NO_LIMIT, NO_LIMIT, SearchUtils.MAX_DEPTH, 0, NO_LIMIT, 0, 0);
+
+    private final long timeMs;
+    private final long nodes;
+    private final int depth;
+    private final int mate;
+    private final long clockMs;
+    private final long incrementMs;
+    private final int movesToGo;
+
+    private SearchLimits(long timeMs, long nodes, int depth, int mate, long clockMs, long incrementMs, int movesToGo) {
+        this.timeMs = timeMs;
+        this.nodes = nodes;
+        this.depth = depth;
+        this.mate = mate;
+        this.clockMs = clockMs;
+        this.incrementMs = incrementMs;
+        this.movesToGo = movesToGo;
+    }
+
+    /**
+     * @return limits that never stop the search on their own, up to the maximum depth
+     */
+    public static SearchLimits infinite() {
+        return INFINITE;
+    }
+
+    public static SearchLimits ofTime(long timeMs) {
+        return INFINITE.withTime(timeMs);
+    }
+
+    public static SearchLimits ofNodes(long nodes) {
+        return INFINITE.withNodes(nodes);
+    }
+
+    public static SearchLimits ofDepth(int depth) {
+        return INFINITE.withDepth(depth);
+    }
+
+    public static SearchLimits ofClock(long clockMs, long incrementMs, int movesToGo) {
+        return INFINITE.withClock(clockMs, incrementMs, movesToGo);
+    }
+
+    public SearchLimits withTime(long timeMs) {
+        return new SearchLimits(Math.max(NO_LIMIT, timeMs), nodes, depth, mate, clockMs, incrementMs, movesToGo);
+    }
+
+    public SearchLimits withNodes(long nodes) {
+        return new SearchLimits(timeMs, Math.max(NO_LIMIT, nodes), depth, mate, clockMs, incrementMs, movesToGo);
+    }
+
+    public SearchLimits withDepth(int depth) {
+        return new SearchLimits(timeMs, nodes, Math.max(1, Math.min(depth, SearchUtils.MAX_DEPTH)), mate, clockMs, incrementMs, movesToGo);
+    }
+
+    /**
+     * Budgets the move from the side to move's clock.
+     *
+     * @param clockMs     time left on the clock
+     * @param incrementMs time added after each move
+     * @param movesToGo   moves until the next time control, or 0 for sudden death
+     */
+    public SearchLimits withClock(long clockMs, long incrementMs, int movesToGo) {
+        return new SearchLimits(timeMs, nodes, depth, mate, Math.max(1, clockMs), Math.max(0, incrementMs), Math.max(0, movesToGo));
+    }
+
+    /**
+     * Searches for a mate in at most {@code moves} moves. Depth is capped at {@code 2 * moves - 1} plies;
+     * iterative deepening already stops once a mate score is proven.
+     */
+    public SearchLimits withMate(int moves) {
+        return new SearchLimits(timeMs, nodes, depth, Math.max(0, moves), clockMs, incrementMs, movesToGo);
+    }
+
+    public long getTimeMs() {
+        return timeMs;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the deepest iteration to search, taking the mate limit into account
+     */
+    public int getDepth() {
+        return mate == 0 ? depth : Math.min(depth, 2 * mate - 1);
+    }
+
+    public int getMate() {
+        return mate;
+    }
+
+    public boolean hasTimeLimit() {
+        return timeMs != NO_LIMIT;
+    }
+
+    public boolean hasNodeLimit() {
+        return nodes != NO_LIMIT;
+    }
+
+    public boolean hasClock() {
+        return clockMs != NO_LIMIT;
+    }
+
+    /**
+     * @return a time manager for the clock limits, or {@code null} without a clock
+     */
+    public TimeManager createTimeManager() {
+        return hasClock() ? new TimeManager(clockMs, incrementMs, movesToGo) : null;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchLimits{timeMs=" + timeMs + ", nodes=" + nodes + ", depth=" + depth + ", mate=" + mate
+                + ", clockMs=" + clockMs + ", incrementMs=" + incrementMs + ", movesToGo=" + movesToGo + '}';
+    }
+}
@@ -25,9 +25,16 @@ public class SearchLogger {
 
         sb.append(String.format("Best Move: %s\n", Move.toAlgebraic(metrics.getBestMove())))
                 .append(String.format("Evaluation: %s\n", formatEval(metrics.getBestEval())))
-                .append(String.format("Nodes: %,d (%,.0f nodes/s)\n",
-                        metrics.getNodesEvaluated(),
+                .append(String.format("PV: %s\n", formatLine(metrics.getPrincipalVariation())))
+                .append(String.format("Nodes: %,d (%,d quiescence, %,.0f nodes/s)\n",
+                        metrics.getNodes(),
+                        metrics.getQNodes(),
                         metrics.getNodesPerSecond()))
+                .append(String.format("Cutoffs: %,d (%.1f%% on the first move, %,d null move), re-searches: %,d\n",
+                        metrics.getBetaCutoffs(),
+                        metrics.getFirstMoveCutoffRate(),
+                        metrics.getNullMoveCutoffs(),
+                        metrics.getResearches()))
                 .append(String.format("TT Hits: %,d (%.1f%%)\n",
                         metrics.getTTHits(),
                         metrics.getTTHitRate()))
@@ -47,12 +54,21 @@ public class SearchLogger {
 
         System.out.println("\n=== Search Summary ===");
         System.out.println("Depth Reached: " + metrics.getCurrentDepth());
-        System.out.printf("Total Positions: %,d\n", metrics.getNodesEvaluated());
+        System.out.printf("Total Positions: %,d\n", metrics.getNodes());
         System.out.printf("TT Hit Rate: %.1f%%\n", metrics.getTTHitRate());
         System.out.printf("TT Occupancy: %.1f%% (%d / %d)\n", occupancyPercentage, occupancy, transpositionTable.size);
         System.out.printf("Final Evaluation: %s\n", formatEval(metrics.getBestEval()));
     }
 
+    private String formatLine(int[] line) {
+        StringBuilder sb = new StringBuilder();
+        for (int move : line) {
+            if (!sb.isEmpty()) sb.append(' ');
+            sb.append(Move.toAlgebraic(move));
+        }
+        return sb.toString();
+    }
+
     private String formatEval(int eval) {
         if (SearchUtils.isMateScore(eval)) {
             int pliesRemaining = SearchUtils.CHECKMATE_EVAL - Math.abs(eval);
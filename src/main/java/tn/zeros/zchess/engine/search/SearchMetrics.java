@@ -3,51 +3,163 @@ package tn.zeros.zchess.engine.search;
 
 import tn.zeros.zchess.core.model.Move;
 
-import java.util.concurrent.atomic.AtomicInteger;
-
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToLongFunction;
+
+/**
+ * Search statistics. The counters are always on: each search thread increments plain {@code long} fields
+ * of its own padded {@link Counters}, with no atomic operation or shared cache line on the hot path, and
+ * the main thread's metrics sum its own counters and its helpers' when read.
+ */
 public class SearchMetrics {
-    private final SearchDebugConfig config;
-    private final long startTime;
-    private final AtomicInteger nodesEvaluated;
-    private final AtomicInteger ttHits;
+    private final Counters counters = new Counters();
+    private final List<Counters> helperCounters = new CopyOnWriteArrayList<>();
+    private volatile long startTime;
     private volatile int currentDepth;
     private volatile int bestMove;
     private volatile int bestEval;
+    private volatile int[] principalVariation = new int[0];
+
+    // Cache line padding around the counters: the helpers' Counters are allocated back to back, and a
+    // line shared between two threads would bounce between their cores on every node. Superclass fields
+    // are laid out first, so the hierarchy keeps the padding on both sides of the counters.
+    @SuppressWarnings("unused")
+    abstract static class LeadingPadding {
+        long p00, p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    abstract static class CounterFields extends LeadingPadding {
+        long nodes;            // All nodes, quiescence included
+        long qnodes;           // Quiescence nodes
+        long ttHits;           // Transposition table cutoffs
+        long betaCutoffs;      // Main search fail-highs
+        long firstMoveCutoffs; // Fail-highs on the first move searched, a measure of move ordering
+        long nullMoveCutoffs;
+        long researches;       // LMR, PVS and aspiration re-searches
+    }
+
+    /**
+     * Counters of one search thread, padded to a cache line of their own. Only that thread writes them;
+     * reads from other threads are racy and may lag a few increments behind, which is fine for statistics.
+     */
+    @SuppressWarnings("unused")
+    public static final class Counters extends CounterFields {
+        long p10, p11, p12, p13, p14, p15, p16, p17;
+
+        void reset() {
+            nodes = 0;
+            qnodes = 0;
+            ttHits = 0;
+            betaCutoffs = 0;
+            firstMoveCutoffs = 0;
+            nullMoveCutoffs = 0;
+            researches = 0;
+        }
+    }
 
     public SearchMetrics() {
-        this.config = SearchDebugConfig.getInstance();
         this.startTime = System.currentTimeMillis();
-        this.nodesEvaluated = new AtomicInteger(0);
-        this.ttHits = new AtomicInteger(0);
         this.bestMove = Move.NULL_MOVE;
         this.bestEval = 0;
     }
 
-    public void incrementNodes() {
-        if (config.isMetricsEnabled()) {
-            nodesEvaluated.incrementAndGet();
-        }
+    /**
+     * The counters of the thread owning these metrics.
+     */
+    Counters counters() {
+        return counters;
     }
 
-    public void incrementTTHits() {
-        if (config.isMetricsEnabled()) {
-            ttHits.incrementAndGet();
+    /**
+     * Includes a helper thread's counters in the totals.
+     */
+    void addHelper(SearchMetrics helper) {
+        helperCounters.add(helper.counters);
+    }
+
+    void clearHelpers() {
+        helperCounters.clear();
+    }
+
+    /**
+     * Starts timing a new search. Each thread resets its own counters when its search starts.
+     */
+    public void startSearch() {
+        startTime = System.currentTimeMillis();
+    }
+
+    private long sum(ToLongFunction<Counters> counter) {
+        long total = counter.applyAsLong(counters);
+        for (Counters helper : helperCounters) {
+            total += counter.applyAsLong(helper);
         }
+        return total;
+    }
+
+    public long getNodes() {
+        return sum(c -> c.nodes);
+    }
+
+    public long getQNodes() {
+        return sum(c -> c.qnodes);
+    }
+
+    public long getTTHits() {
+        return sum(c -> c.ttHits);
+    }
+
+    public long getBetaCutoffs() {
+        return sum(c -> c.betaCutoffs);
+    }
+
+    public long getFirstMoveCutoffs() {
+        return sum(c -> c.firstMoveCutoffs);
+    }
+
+    public long getNullMoveCutoffs() {
+        return sum(c -> c.nullMoveCutoffs);
+    }
+
+    public long getResearches() {
+        return sum(c -> c.researches);
     }
 
-    // Getters with metric checking
     public long getElapsedMs() {
         return System.currentTimeMillis() - startTime;
     }
 
     public double getNodesPerSecond() {
         long elapsed = getElapsedMs();
-        return elapsed > 0 ? (nodesEvaluated.get() * 1000.0) / elapsed : 0;
+        return elapsed > 0 ? (getNodes() * 1000.0) / elapsed : 0;
     }
 
     public double getTTHitRate() {
-        int nodes = nodesEvaluated.get();
-        return nodes > 0 ? (ttHits.get() * 100.0) / nodes : 0;
+        long nodes = getNodes();
+        return nodes > 0 ? (getTTHits() * 100.0) / nodes : 0;
+    }
+
+    public double getFirstMoveCutoffRate() {
+        long cutoffs = getBetaCutoffs();
+        return cutoffs > 0 ? (getFirstMoveCutoffs() * 100.0) / cutoffs : 0;
+    }
+
+    /**
+     * @return the counters by name, for exporting to a metrics system
+     */
+    public Map<String, Long> toMap() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        values.put("nodes", getNodes());
+        values.put("qnodes", getQNodes());
+        values.put("ttHits", getTTHits());
+        values.put("betaCutoffs", getBetaCutoffs());
+        values.put("firstMoveCutoffs", getFirstMoveCutoffs());
+        values.put("nullMoveCutoffs", getNullMoveCutoffs());
+        values.put("researches", getResearches());
+        values.put("elapsedMs", getElapsedMs());
+        return values;
     }
 
     public int getCurrentDepth() {
@@ -75,11 +187,11 @@ public class SearchMetrics {
         this.bestEval = eval;
     }
 
-    public int getNodesEvaluated() {
-        return nodesEvaluated.get();
+    public int[] getPrincipalVariation() {
+        return principalVariation;
     }
 
-    public int getTTHits() {
-        return ttHits.get();
+    public void setPrincipalVariation(int[] principalVariation) {
+        this.principalVariation = principalVariation;
     }
-}
\ No newline at end of file
+}
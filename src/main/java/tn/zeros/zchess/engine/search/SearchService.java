@@ -2,9 +2,37 @@ package tn.zeros.zchess.engine.search;
 
 import tn.zeros.zchess.core.model.BoardState;
 
+import java.util.function.Consumer;
+
 public interface SearchService {
     int startSearch(BoardState boardState);
 
+    int startSearch(BoardState boardState, SearchLimits limits);
+
+    /**
+     * @return a token for {@link #startSearch(BoardState, SearchLimits, long)}; a {@link #stop()} issued
+     * after this call aborts that search even before it starts
+     */
+    long newSearchToken();
+
+    int startSearch(BoardState boardState, SearchLimits limits, long token);
+
+    void stop();
+
+    void startPondering();
+
+    void ponderHit();
+
+    /**
+     * @return the expected line of play from the last search, best move first
+     */
+    int[] getPrincipalVariation();
+
+    /**
+     * Registers a listener called after each completed iteration, or {@code null} to remove it.
+     */
+    void setInfoListener(Consumer<SearchInfo> infoListener);
+
     int alphaBetaPrune(int depth, int alpha, int beta, BoardState state, int currentPly);
 
     void clear();
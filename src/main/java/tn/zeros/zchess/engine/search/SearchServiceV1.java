@@ -4,57 +4,274 @@ import tn.zeros.zchess.core.logic.generation.LegalMoveFilter;
 import tn.zeros.zchess.core.logic.generation.MoveGenerator;
 import tn.zeros.zchess.core.model.BoardState;
 import tn.zeros.zchess.core.model.Move;
-import tn.zeros.zchess.core.model.MoveUndoInfo;
 import tn.zeros.zchess.core.model.Piece;
 import tn.zeros.zchess.core.service.GameStateChecker;
 import tn.zeros.zchess.core.service.MoveExecutor;
 import tn.zeros.zchess.engine.evaluate.EvalUtils;
-import tn.zeros.zchess.engine.evaluate.EvaluationService;
+import tn.zeros.zchess.engine.evaluate.Evaluator;
+import tn.zeros.zchess.engine.evaluate.EvaluatorType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 public class SearchServiceV1 implements SearchService {
-    private static final int MAX_DEPTH = SearchUtils.MAX_DEPTH;
+    // Stop requests and deadlines must be honoured within a millisecond. At the single-thread speed of the
+    // classical evaluator (about 500k nodes/s on bench) a millisecond is some 500 nodes, NNUE is slower.
+    private static final long STOP_LATENCY_NANOS = 1_000_000;
+    private static final long NODES_PER_SECOND_ESTIMATE = 500_000;
+    // Nodes between clock and stop checks: the largest power of two within the latency target, 256 nodes
+    // or about half a millisecond, leaving the other half for slower evaluators and the unwinding
+    static final int POLL_INTERVAL_NODES = Integer.highestOneBit((int) (NODES_PER_SECOND_ESTIMATE * STOP_LATENCY_NANOS / 1_000_000_000L));
+    private static final int ASPIRATION_MIN_DEPTH = 4;
+    private static final int ASPIRATION_WINDOW = 50; // Initial half-width around the previous score
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    private static final int NULL_MOVE_BASE_REDUCTION = 3;
+    private static final int NULL_MOVE_VERIFICATION_DEPTH = 8; // From here on, null-move cutoffs are verified
+    private static final int REVERSE_FUTILITY_MAX_DEPTH = 6;
+    private static final int REVERSE_FUTILITY_MARGIN = 80; // Per ply of remaining depth
+    private static final int RAZORING_MAX_DEPTH = 3;
+    private static final int RAZORING_MARGIN = 500; // Per ply of remaining depth
+    private static final int FUTILITY_MAX_DEPTH = 3;
+    private static final int FUTILITY_MARGIN = 120; // Per ply of remaining depth
+    private static final int LMR_MIN_DEPTH = 3;
+    private static final int LMR_MIN_MOVES = 3; // Moves searched at full depth before reductions start
+    private static final int[][] LMR_REDUCTIONS = new int[SearchUtils.MAX_DEPTH + 1][SearchUtils.MAX_MOVES + 1];
+
+    static {
+        for (int depth = 1; depth <= SearchUtils.MAX_DEPTH; depth++) {
+            for (int moveNumber = 1; moveNumber <= SearchUtils.MAX_MOVES; moveNumber++) {
+                LMR_REDUCTIONS[depth][moveNumber] = (int) (0.75 + Math.log(depth) * Math.log(moveNumber) / 2.25);
+            }
+        }
+    }
 
     private final MoveOrderingService moveOrderingService = new MoveOrderingService();
-    private final TranspositionTable transpositionTable = new TranspositionTable(1 << 26);
+    private final SearchStack searchStack = new SearchStack(moveOrderingService);
+    private final PrincipalVariation pvTable = new PrincipalVariation();
+    private final boolean[] followingPv = new boolean[SearchUtils.MAX_PLY + 1]; // Whether the path to a ply is the previous PV
+    private final TranspositionTable transpositionTable;
+    private final EvaluatorType evaluatorType;
+    private final Evaluator evaluator;
     private final SearchMetrics metrics;
+    private final SearchMetrics.Counters counters; // This thread's stripe of the metrics counters
     private final SearchLogger logger;
 
     private final long searchTimeMs;
-    private long searchEndTime;
+    private SearchLimits limits = SearchLimits.infinite();
+    private long searchStartNanos;
+    private long deadlineNanos;
+    private TimeManager timeManager; // Main thread only, when searching on a clock
+    private long nextPollNodes;
     private boolean searchCancelled;
+    // Searches are stopped by token, so a stop() reaching a search not started yet isn't lost
+    private final AtomicLong lastSearchToken = new AtomicLong();
+    private final AtomicLong stoppedThrough = new AtomicLong(-1); // Searches with a token up to this one must stop
+    private volatile long searchToken; // Token of the running search
+    private volatile boolean pondering;
+    private final Object ponderLock = new Object();
+
+    // Lazy SMP helpers: independent searchers sharing this instance's transposition table
+    private final List<SearchServiceV1> helpers = new ArrayList<>();
+    private ExecutorService helperExecutor;
 
     private int bestMoveThisIteration;
     private int bestEvalThisIteration;
     private boolean hasSearchedAtLeastOneMove;
+    private int nullMoveMinPly; // Null moves are disabled below this ply while verifying a null-move cutoff
+    private volatile int[] principalVariation = new int[0]; // Line of the last completed iteration
+    private Consumer<SearchInfo> infoListener;
 
     public SearchServiceV1(long searchTimeMs) {
-        this.searchTimeMs = searchTimeMs;
-        this.metrics = new SearchMetrics();
-        this.logger = new SearchLogger(metrics, transpositionTable);
+        this(searchTimeMs, EvaluatorType.CLASSICAL);
+    }
+
+    public SearchServiceV1(long searchTimeMs, EvaluatorType evaluatorType) {
+        this(searchTimeMs, evaluatorType, SearchUtils.DEFAULT_HASH_MB);
+    }
+
+    public SearchServiceV1(long searchTimeMs, EvaluatorType evaluatorType, int hashMegabytes) {
+        this(searchTimeMs, TranspositionTable.ofMegabytes(hashMegabytes), evaluatorType);
         SearchDebugConfig.getInstance()
-                .enableMetrics(false)
                 .enableIterationLogging(false)
                 .enableVerboseLogging(false)
                 .enableFinalSummary(false);
 
     }
 
+    private SearchServiceV1(long searchTimeMs, TranspositionTable transpositionTable, EvaluatorType evaluatorType) {
+        this.searchTimeMs = searchTimeMs;
+        this.transpositionTable = transpositionTable;
+        this.evaluatorType = evaluatorType;
+        this.evaluator = evaluatorType.create();
+        this.metrics = new SearchMetrics();
+        this.counters = metrics.counters();
+        this.logger = new SearchLogger(metrics, transpositionTable);
+    }
+
+    /**
+     * Sets the total number of search threads (main thread included).
+     * Helper threads search the same root on their own board clone and share only the transposition table.
+     */
+    public void setThreadCount(int threadCount) {
+        int helperCount = Math.max(1, threadCount) - 1;
+        if (helperCount == helpers.size()) return;
+
+        shutdownHelpers();
+        for (int i = 0; i < helperCount; i++) {
+            SearchServiceV1 helper = new SearchServiceV1(searchTimeMs, transpositionTable, evaluatorType);
+            helpers.add(helper);
+            metrics.addHelper(helper.metrics);
+        }
+        if (helperCount > 0) {
+            helperExecutor = Executors.newFixedThreadPool(helperCount, runnable -> {
+                Thread thread = new Thread(runnable, "search-helper");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public int getThreadCount() {
+        return helpers.size() + 1;
+    }
+
+    /**
+     * Sets the listener receiving a {@link SearchInfo} after each completed iteration, on the search thread.
+     */
+    @Override
+    public void setInfoListener(Consumer<SearchInfo> infoListener) {
+        this.infoListener = infoListener;
+    }
+
     @Override
     public int startSearch(BoardState boardState) {
+        return startSearch(boardState, SearchLimits.ofTime(searchTimeMs));
+    }
+
+    @Override
+    public int startSearch(BoardState boardState, SearchLimits limits) {
+        return startSearch(boardState, limits, newSearchToken());
+    }
+
+    /**
+     * Reserves the token of a search to be started with {@link #startSearch(BoardState, SearchLimits, long)},
+     * typically on another thread. A {@link #stop()} issued after this call aborts that search, even if it
+     * hasn't started yet.
+     */
+    @Override
+    public long newSearchToken() {
+        return lastSearchToken.incrementAndGet();
+    }
+
+    @Override
+    public int startSearch(BoardState boardState, SearchLimits limits, long token) {
+        searchToken = token;
+        searchStartNanos = System.nanoTime();
+        timeManager = limits.createTimeManager();
+        if (timeManager != null) {
+            // The hard limit is enforced like a fixed time, the soft limit between iterations
+            long hardLimitMs = timeManager.getHardLimitMs();
+            limits = limits.withTime(limits.hasTimeLimit() ? Math.min(limits.getTimeMs(), hardLimitMs) : hardLimitMs);
+            timeManager.setSingleReply(generateLegalMoves(boardState).size == 1);
+        }
+        this.limits = limits;
+        this.deadlineNanos = searchStartNanos + limits.getTimeMs() * 1_000_000;
+        transpositionTable.newSearch();
+        metrics.startSearch();
+
+        List<Future<?>> helperSearches = startHelpers(boardState);
+        evaluator.attach(boardState);
+        int bestMove;
+        try {
+            bestMove = iterativeDeepening(boardState, 1);
+            awaitPonderEnd();
+        } finally {
+            evaluator.detach(boardState);
+            stopHelpers(helperSearches);
+        }
+
+        logger.logFinalSummary();
+        return bestMove != Move.NULL_MOVE ? bestMove : getFallbackMove(boardState);
+    }
+
+    /**
+     * Requests the running search (and its helpers), and any search whose token was already reserved, to
+     * stop as soon as possible. Searches started later are unaffected. Safe to call from any thread; the
+     * search notices within a millisecond.
+     */
+    @Override
+    public void stop() {
+        stoppedThrough.accumulateAndGet(lastSearchToken.get(), Math::max);
+        for (SearchServiceV1 helper : helpers) {
+            helper.stop();
+        }
+        synchronized (ponderLock) {
+            pondering = false;
+            ponderLock.notifyAll();
+        }
+    }
+
+    /**
+     * Makes the next search (or the running one) a ponder search: it searches on the opponent's time,
+     * ignoring its time limits, and doesn't return before {@link #ponderHit()} or {@link #stop()}.
+     * Call it before starting the search on another thread, so that an early ponder hit isn't lost, and
+     * reserve the search's token with {@link #newSearchToken()} first, so that an early stop isn't either.
+     */
+    @Override
+    public void startPondering() {
+        pondering = true;
+    }
+
+    /**
+     * The expected move was played: the ponder search continues as a normal search, its time limits
+     * counted from when pondering started.
+     */
+    @Override
+    public void ponderHit() {
+        synchronized (ponderLock) {
+            pondering = false;
+            ponderLock.notifyAll();
+        }
+    }
+
+    // A ponder search that finishes early (mate found, depth limit) holds its move until the ponder ends
+    private void awaitPonderEnd() {
+        synchronized (ponderLock) {
+            while (pondering && !isStopRequested()) {
+                try {
+                    ponderLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private int iterativeDeepening(BoardState boardState, int startDepth) {
         int bestMove = Move.NULL_MOVE;
         int bestEval = SearchUtils.MIN_EVAL;
-        searchEndTime = System.currentTimeMillis() + searchTimeMs;
         searchCancelled = false;
+        counters.reset();
+        nextPollNodes = 0; // Poll at the first node so limits reached before the search are honoured
 
         bestMoveThisIteration = Move.NULL_MOVE;
         bestEvalThisIteration = SearchUtils.MIN_EVAL;
+        principalVariation = new int[0];
 
         // Iterative deepening loop
-        for (int searchDepth = 1; searchDepth <= MAX_DEPTH; searchDepth++) {
+        for (int searchDepth = startDepth; searchDepth <= limits.getDepth(); searchDepth++) {
             metrics.setCurrentDepth(searchDepth);
             hasSearchedAtLeastOneMove = false;
+            followingPv[0] = true;
 
-            alphaBetaPrune(searchDepth, SearchUtils.MIN_EVAL, SearchUtils.MAX_EVAL, boardState, 0);
+            aspirationSearch(searchDepth, bestEval, boardState);
 
             if (isSearchCancelled()) {
                 if (hasSearchedAtLeastOneMove) {
@@ -62,6 +279,7 @@ public class SearchServiceV1 implements SearchService {
                     bestEval = bestEvalThisIteration;
                     metrics.setBestMove(bestMove);
                     metrics.setBestEval(bestEval);
+                    updatePrincipalVariation(bestMove);
                     logger.logIterationResults();
                 }
                 break;
@@ -70,30 +288,133 @@ public class SearchServiceV1 implements SearchService {
                 bestEval = bestEvalThisIteration;
                 metrics.setBestMove(bestMove);
                 metrics.setBestEval(bestEval);
+                updatePrincipalVariation(bestMove);
+                reportIteration(searchDepth, bestEval);
 
                 if (SearchUtils.isMateScore(bestEval)) {
                     break;
                 }
+                long elapsedMs = (System.nanoTime() - searchStartNanos) / 1_000_000;
+                if (timeManager != null && timeManager.onIterationComplete(bestMove, bestEval, elapsedMs) && !pondering) {
+                    logger.logIterationResults();
+                    break;
+                }
             }
 
             logger.logIterationResults();
         }
-        logger.logFinalSummary();
         searchCancelled = false;
-        return bestMove != Move.NULL_MOVE ? bestMove : getFallbackMove(boardState);
+        return bestMove;
+    }
+
+    private void reportIteration(int depth, int eval) {
+        if (infoListener == null) return;
+        long elapsedMs = (System.nanoTime() - searchStartNanos) / 1_000_000;
+        infoListener.accept(new SearchInfo(depth, eval, getTotalNodeCount(), elapsedMs,
+                principalVariation.clone(), transpositionTable.hashfull()));
+    }
+
+    // Keeps the line ending an iteration; an interrupted iteration's line is only used if it starts with its best move
+    private void updatePrincipalVariation(int bestMove) {
+        if (pvTable.getMove(0) == bestMove) {
+            principalVariation = pvTable.toArray();
+        } else if (principalVariation.length == 0 || principalVariation[0] != bestMove) {
+            principalVariation = new int[]{bestMove};
+        }
+        metrics.setPrincipalVariation(principalVariation);
+    }
+
+    /**
+     * @return the principal variation of the last completed (or usable interrupted) iteration, best move first
+     */
+    @Override
+    public int[] getPrincipalVariation() {
+        return principalVariation.clone();
+    }
+
+    /**
+     * Searches the root with a window around the previous iteration's score, widening it exponentially
+     * on the failing side until the score falls inside.
+     */
+    private void aspirationSearch(int depth, int previousEval, BoardState boardState) {
+        int delta = ASPIRATION_WINDOW;
+        int alpha = SearchUtils.MIN_EVAL;
+        int beta = SearchUtils.MAX_EVAL;
+        if (depth >= ASPIRATION_MIN_DEPTH && !SearchUtils.isMateScore(previousEval)) {
+            alpha = Math.max(SearchUtils.MIN_EVAL, previousEval - delta);
+            beta = Math.min(SearchUtils.MAX_EVAL, previousEval + delta);
+        }
+
+        while (true) {
+            int eval = alphaBetaPrune(depth, alpha, beta, boardState, 0);
+            if (isSearchCancelled()) return;
+
+            if (eval <= alpha && alpha > SearchUtils.MIN_EVAL) {
+                counters.researches++;
+                beta = (alpha + beta) / 2;
+                alpha = Math.max(SearchUtils.MIN_EVAL, eval - delta);
+            } else if (eval >= beta && beta < SearchUtils.MAX_EVAL) {
+                counters.researches++;
+                beta = Math.min(SearchUtils.MAX_EVAL, eval + delta);
+            } else {
+                return;
+            }
+            delta *= 2;
+        }
+    }
+
+    private List<Future<?>> startHelpers(BoardState boardState) {
+        List<Future<?>> helperSearches = new ArrayList<>(helpers.size());
+        for (int i = 0; i < helpers.size(); i++) {
+            SearchServiceV1 helper = helpers.get(i);
+            BoardState helperState = boardState.clone();
+            int startDepth = 1 + (i + 1) % 2; // Stagger depths so helpers don't mirror the main thread
+            helper.limits = limits.withNodes(SearchLimits.NO_LIMIT); // The node budget is the main thread's
+            if (pondering) helper.limits = helper.limits.withTime(SearchLimits.NO_LIMIT); // Stopped with the main thread
+            helper.deadlineNanos = deadlineNanos;
+            helper.searchToken = helper.newSearchToken();
+            helperSearches.add(helperExecutor.submit(() -> {
+                helper.evaluator.attach(helperState);
+                return helper.iterativeDeepening(helperState, startDepth);
+            }));
+        }
+        return helperSearches;
+    }
+
+    private void stopHelpers(List<Future<?>> helperSearches) {
+        for (SearchServiceV1 helper : helpers) {
+            helper.stop();
+        }
+        for (Future<?> helperSearch : helperSearches) {
+            try {
+                helperSearch.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Search helper failed", e.getCause());
+            }
+        }
+    }
+
+    private void shutdownHelpers() {
+        if (helperExecutor != null) {
+            helperExecutor.shutdownNow();
+            helperExecutor = null;
+        }
+        helpers.clear();
+        metrics.clearHelpers();
     }
 
     @Override
     public int alphaBetaPrune(int depth, int alpha, int beta, BoardState state, int currentPly) {
-        checkSearchTimeout();
-        if (isSearchCancelled()) {
+        if (checkLimits()) {
             return SearchUtils.TIMEOUT_VALUE;
         }
 
-        metrics.incrementNodes();
+        pvTable.clear(currentPly);
 
         if (currentPly > 0) {
-            if (isDrawishPosition(state)) return 0;
+            if (isDrawishPosition(state, currentPly)) return 0;
 
             // Mate Distance Pruning
             alpha = Math.max(alpha, -SearchUtils.CHECKMATE_EVAL + currentPly);
@@ -104,15 +425,10 @@ public class SearchServiceV1 implements SearchService {
         }
 
         // 7.2. Transposition Table Lookup
-        final TranspositionTable.Entry ttEntry = getTranspositionEntry(state, currentPly);
-        final int ttScore = lookupEntryEval(ttEntry, depth, alpha, beta);
-        if (ttScore != SearchUtils.LOOKUP_FAILED) {
-            metrics.incrementTTHits();
-            if (currentPly == 0) {
-                bestMoveThisIteration = ttEntry.bestMove;
-                bestEvalThisIteration = ttScore;
-                hasSearchedAtLeastOneMove = true;
-            }
+        final long ttEntry = transpositionTable.probe(state.getZobristKey());
+        final int ttScore = lookupEntryEval(ttEntry, depth, alpha, beta, currentPly);
+        if (ttScore != SearchUtils.LOOKUP_FAILED && currentPly > 0) { // The root is always searched
+            counters.ttHits++;
             return ttScore;
         }
 
@@ -120,28 +436,106 @@ public class SearchServiceV1 implements SearchService {
             return quiescenceSearch(alpha, beta, state, currentPly);
         }
 
-        MoveGenerator.MoveList moves = generateLegalMoves(state);
-        if (moves.isEmpty()) {
-            if (LegalMoveFilter.inCheck(state, state.isWhiteToMove())) {
-                return -SearchUtils.CHECKMATE_EVAL;
+        boolean inCheck = LegalMoveFilter.inCheck(state, state.isWhiteToMove());
+
+        // Forward pruning below relies on the static eval, which is unreliable in check and not risked at PV nodes
+        boolean canPrune = beta - alpha == 1 && !inCheck && currentPly > 0 && !SearchUtils.isMateScore(beta);
+        int staticEval = canPrune ? evaluateBoard(state) : 0;
+
+        if (canPrune) {
+            // Reverse futility pruning: the eval is so far above beta that no reply is expected to bring it back
+            if (depth <= REVERSE_FUTILITY_MAX_DEPTH && staticEval - REVERSE_FUTILITY_MARGIN * depth >= beta) {
+                return beta;
+            }
+
+            // Razoring: far below alpha, only captures are likely to recover, so verify with quiescence
+            if (depth <= RAZORING_MAX_DEPTH && staticEval + RAZORING_MARGIN * depth < alpha) {
+                int razorScore = quiescenceSearch(alpha, beta, state, currentPly);
+                if (isSearchCancelled()) {
+                    return SearchUtils.TIMEOUT_VALUE;
+                }
+                if (razorScore <= alpha) return alpha;
+            }
+        }
+
+        // Null-move pruning: if passing the turn still fails high, some real move will too
+        if (canPrune && canTryNullMove(state, depth, currentPly)) {
+            if (staticEval >= beta) {
+                int reduction = NULL_MOVE_BASE_REDUCTION + depth / 4 + Math.min((staticEval - beta) / 200, 3);
+                int nullDepth = Math.max(0, depth - 1 - reduction);
+                MoveExecutor.makeNullMove(state);
+                followingPv[currentPly + 1] = false;
+                int nullScore = -alphaBetaPrune(nullDepth, -beta, -beta + 1, state, currentPly + 1);
+                MoveExecutor.unmakeNullMove(state);
+
+                if (isSearchCancelled()) {
+                    return SearchUtils.TIMEOUT_VALUE;
+                }
+                if (nullScore >= beta) {
+                    if (depth < NULL_MOVE_VERIFICATION_DEPTH) {
+                        counters.nullMoveCutoffs++;
+                        return beta;
+                    }
+
+                    // Verify with a reduced search of this node that can't pass the turn, to catch zugzwang
+                    int previousMinPly = nullMoveMinPly;
+                    nullMoveMinPly = currentPly + 3 * nullDepth / 4;
+                    int verifiedScore = alphaBetaPrune(nullDepth, beta - 1, beta, state, currentPly);
+                    nullMoveMinPly = previousMinPly;
+
+                    if (isSearchCancelled()) {
+                        return SearchUtils.TIMEOUT_VALUE;
+                    }
+                    if (verifiedScore >= beta) {
+                        counters.nullMoveCutoffs++;
+                        return beta;
+                    }
+                }
             }
-            return 0;
         }
 
-        int ttBestMove = (ttEntry != null) ? ttEntry.bestMove : Move.NULL_MOVE; // Get TT best move for ordering
-        moveOrderingService.orderMoves(moves, state, currentPly, ttBestMove); // Order moves for efficiency
+        // The previous iteration's PV move is tried first while on its path, then the TT best move
+        int pvMove = followingPv[currentPly] && currentPly < principalVariation.length ? principalVariation[currentPly] : Move.NULL_MOVE;
+        int ttBestMove = TranspositionTable.getMove(ttEntry); // Get TT best move for ordering
+        MovePicker movePicker = searchStack.movePicker(currentPly);
+        movePicker.init(state, pvMove != Move.NULL_MOVE ? pvMove : ttBestMove, currentPly, inCheck, false); // Moves are generated and ordered lazily
 
         int originalAlpha = alpha; // Store original alpha for TT entry type
         int bestMove = Move.NULL_MOVE;  // Initialize best move for this node
         int bestScore = SearchUtils.MIN_EVAL; // Initialize best score for this node
+        int movesSearched = 0;
+
+        // Futility pruning: near the leaves, quiet moves can't lift an eval this far below alpha
+        boolean futile = canPrune && depth <= FUTILITY_MAX_DEPTH && staticEval + FUTILITY_MARGIN * depth <= alpha;
+
+        int move;
+        while ((move = movePicker.nextMove()) != Move.NULL_MOVE) { // Iterate through all moves
+            movesSearched++;
+            MoveExecutor.makeMove(state, move); // Make move
+            followingPv[currentPly + 1] = pvMove != Move.NULL_MOVE && move == pvMove;
+            if (futile && movesSearched > 1 && isQuiet(move) && !LegalMoveFilter.inCheck(state, state.isWhiteToMove())) {
+                MoveExecutor.unmakeMove(state); // Checks are kept, they can still uncover mates
+                continue;
+            }
+            int eval;
+            if (movesSearched == 1) {
+                eval = -alphaBetaPrune(depth - 1, -beta, -alpha, state, currentPly + 1); // Full window for the first move
+            } else {
+                // Principal variation search: prove the move is no better than alpha with a null window,
+                // at reduced depth for late moves; a reduced move that beats alpha is searched again in full
+                int reduction = lateMoveReduction(state, move, depth, movesSearched, beta - alpha > 1, inCheck, currentPly);
+                eval = -alphaBetaPrune(depth - 1 - reduction, -alpha - 1, -alpha, state, currentPly + 1);
+                if (reduction > 0 && eval > alpha) {
+                    counters.researches++;
+                    eval = -alphaBetaPrune(depth - 1, -alpha - 1, -alpha, state, currentPly + 1);
+                }
+                if (eval > alpha && eval < beta) {
+                    counters.researches++;
+                    eval = -alphaBetaPrune(depth - 1, -beta, -alpha, state, currentPly + 1); // Re-search on fail-high
+                }
+            }
+            MoveExecutor.unmakeMove(state); // Unmake move (restore state)
 
-        for (int i = 0; i < moves.size; i++) { // Iterate through all moves
-            int move = moves.moves[i];
-            MoveUndoInfo undoInfo = MoveExecutor.makeMove(state, move); // Make move
-            int eval = -alphaBetaPrune(depth - 1, -beta, -alpha, state, currentPly + 1); // Recursive alpha-beta call
-            MoveExecutor.unmakeMove(state, undoInfo); // Unmake move (restore state)
-
-            checkSearchTimeout();
             if (isSearchCancelled()) {
                 return SearchUtils.TIMEOUT_VALUE;
             }
@@ -151,22 +545,29 @@ public class SearchServiceV1 implements SearchService {
                 bestScore = eval;   // Update best score if we found a better one
                 bestMove = move;     // Update best move
 
-                if (currentPly == 0) { // Update root move for iterative deepening
+                if (currentPly == 0 && eval > alpha) { // Update root move, ignoring aspiration fail-lows
                     bestMoveThisIteration = bestMove;
                     bestEvalThisIteration = bestScore;
                     hasSearchedAtLeastOneMove = true;
                 }
+                if (eval > alpha) pvTable.update(currentPly, move);
                 alpha = Math.max(alpha, eval); // Update alpha (lower bound)
             }
 
             // 7.5.3. Beta Cutoff
             if (alpha >= beta) {
+                counters.betaCutoffs++;
+                if (movesSearched == 1) counters.firstMoveCutoffs++;
                 storeTranspositionEntry(state, depth, beta, TTEntryType.LOWER_BOUND, bestMove, currentPly); // Store TT entry (lower bound)
                 moveOrderingService.updateKillerMoves(move, currentPly); // Update killer move heuristic
                 return beta; // Beta cutoff - return beta value
             }
         }
 
+        if (movesSearched == 0) { // No legal moves: checkmate or stalemate
+            return inCheck ? -SearchUtils.CHECKMATE_EVAL + currentPly : 0; // Mated here, currentPly plies from the root
+        }
+
         // 7.6. Transposition Table Store (after move loop)
         TTEntryType entryType;
         int entryScore;
@@ -192,18 +593,18 @@ public class SearchServiceV1 implements SearchService {
 
     // 8. Quiescence Search (quiescenceSearch)
     private int quiescenceSearch(int alpha, int beta, BoardState state, int currentPly) {
-        checkSearchTimeout();
-        if (isSearchCancelled()) {
+        if (checkLimits()) {
             return SearchUtils.TIMEOUT_VALUE;
         }
+        counters.qnodes++;
 
         // 8.2. Transposition Table Lookup
-        final TranspositionTable.Entry ttEntry = getTranspositionEntry(state, currentPly); // Retrieve TT entry
-        final int ttScore = lookupEntryEval(ttEntry, 0, alpha, beta); // Depth 0 for quiescence entries
+        final long ttEntry = transpositionTable.probe(state.getZobristKey()); // Retrieve TT entry
+        final int ttScore = lookupEntryEval(ttEntry, 0, alpha, beta, currentPly); // Depth 0 for quiescence entries
         if (ttScore != SearchUtils.LOOKUP_FAILED) {
-            metrics.incrementTTHits(); // Increment TT hit count
+            counters.ttHits++;
             if (currentPly == 0) { // Store best move for root in iterative deepening (though likely NULL in quiescence)
-                bestMoveThisIteration = ttEntry.bestMove;
+                bestMoveThisIteration = TranspositionTable.getMove(ttEntry);
                 bestEvalThisIteration = ttScore;
                 hasSearchedAtLeastOneMove = true;
             }
@@ -223,18 +624,11 @@ public class SearchServiceV1 implements SearchService {
             alpha = Math.max(alpha, standPat); // Update alpha if stand-pat improves it
         }
 
-        // 8.5. Move Generation (Captures or all moves if in check)
-        MoveGenerator.MoveList moves = generateQuiescenceMoves(state, inCheck); // Generate only captures (or all if in check)
-
-        // 8.6. Check for No Legal Quiescence Moves
-        if (moves.isEmpty()) {
-            int finalScore = inCheck ? -SearchUtils.CHECKMATE_EVAL : standPat; // Checkmate if in check, otherwise stand-pat
-            storeTranspositionEntry(state, 0, finalScore, TTEntryType.EXACT, Move.NULL_MOVE, currentPly); // Store TT entry (exact score for terminal node)
-            return finalScore; // Return final score for quiescence search leaf node
-        }
-
-        int ttBestMove = (ttEntry != null) ? ttEntry.bestMove : Move.NULL_MOVE; // Get TT best move for ordering
-        moveOrderingService.orderMoves(moves, state, currentPly, ttBestMove); // Order moves (captures)
+        // 8.5. Move Generation (Captures or all moves if in check), generated and ordered lazily.
+        // Captures losing material by static exchange evaluation are pruned by the picker.
+        int ttBestMove = TranspositionTable.getMove(ttEntry); // Get TT best move for ordering
+        MovePicker movePicker = searchStack.movePicker(currentPly);
+        movePicker.init(state, ttBestMove, currentPly, inCheck, true);
 
         int originalAlpha = alpha; // Store original alpha for TT entry type
         int bestMove = Move.NULL_MOVE; // Initialize best move for quiescence node
@@ -245,9 +639,10 @@ public class SearchServiceV1 implements SearchService {
         // Use a more conservative margin for delta pruning
         int deltaMargin = EvalUtils.getPieceTypeValue(Piece.PAWN) + 200;
 
-        for (int i = 0; i < moves.size; i++) {
-
-            int move = moves.moves[i];
+        int movesSearched = 0;
+        int move;
+        while ((move = movePicker.nextMove()) != Move.NULL_MOVE) {
+            movesSearched++;
             int capturedPiece = Move.getCapturedPiece(move);
             int capturedValue = EvalUtils.getPieceTypeValue(capturedPiece);
 
@@ -259,9 +654,13 @@ public class SearchServiceV1 implements SearchService {
             }
 
             // 8.7.3. Recursive Quiescence Search Call
-            MoveUndoInfo undoInfo = MoveExecutor.makeMove(state, move); // Make capture move
+            MoveExecutor.makeMove(state, move); // Make capture move
             int eval = -quiescenceSearch(-beta, -alpha, state, currentPly + 1); // Recursive quiescence search
-            MoveExecutor.unmakeMove(state, undoInfo); // Unmake capture move
+            MoveExecutor.unmakeMove(state); // Unmake capture move
+
+            if (isSearchCancelled()) {
+                return SearchUtils.TIMEOUT_VALUE;
+            }
 
             // 8.7.5. Update Best Score and Move
             if (eval > bestScore) {
@@ -278,6 +677,11 @@ public class SearchServiceV1 implements SearchService {
             }
         }
 
+        // 8.6. Check for No Legal Quiescence Moves (checkmate)
+        if (inCheck && movesSearched == 0) {
+            return -SearchUtils.CHECKMATE_EVAL + currentPly;
+        }
+
         // 8.8. Transposition Table Store (after move loop)
         TTEntryType entryType;
         int entryScore;
@@ -301,23 +705,8 @@ public class SearchServiceV1 implements SearchService {
         return MoveGenerator.generateAllMoves(state, false);
     }
 
-    private MoveGenerator.MoveList generateQuiescenceMoves(BoardState state, boolean inCheck) { // Clarified purpose
-        return MoveGenerator.generateAllMoves(state, !inCheck); // Captures only if not in check
-    }
-
 
     // 10. Transposition Table Helper Methods (TT Access)
-    private TranspositionTable.Entry getTranspositionEntry(BoardState state, int currentPly) {
-        final long positionKey = state.getZobristKey(); // Get Zobrist key for the current position
-        final TranspositionTable.Entry entry = transpositionTable.get(positionKey); // Lookup entry in TT
-
-        if (entry != null) {
-            // Always unadjust mate scores when retrieving from TT to get correct ply distance to mate
-            entry.score = SearchUtils.unadjustMateScore(entry.score, currentPly);
-        }
-        return entry; // Return the TT entry (or null if not found)
-    }
-
     private void storeTranspositionEntry(BoardState state, int depth, int score, TTEntryType type, int bestMove, int currentPly) {
         if (SearchDebugConfig.getInstance().isVerboseLogging()) {
             if (depth > 2)
@@ -331,22 +720,24 @@ public class SearchServiceV1 implements SearchService {
 
         // Only store if we have a valid move
         if (bestMove != Move.NULL_MOVE) {
-            transpositionTable.put(positionKey, depth, adjustedScore, type, bestMove, currentPly);
+            transpositionTable.store(positionKey, depth, adjustedScore, type, bestMove);
         }
     }
 
-    private int lookupEntryEval(TranspositionTable.Entry ttEntry, int depth, int alpha, int beta) {
-        if (ttEntry != null && ttEntry.depth >= depth) {
-            final int score = ttEntry.score;
+    private int lookupEntryEval(long ttEntry, int depth, int alpha, int beta, int currentPly) {
+        if (ttEntry != TranspositionTable.NO_ENTRY && TranspositionTable.getDepth(ttEntry) >= depth) {
+            // Always unadjust mate scores when retrieving from TT to get correct ply distance to mate
+            final int score = SearchUtils.unadjustMateScore(TranspositionTable.getScore(ttEntry), currentPly);
+            final TTEntryType type = TranspositionTable.getType(ttEntry);
 
-            if (ttEntry.type == TTEntryType.EXACT) {
+            if (type == TTEntryType.EXACT) {
                 return score;
             }
 
-            if (ttEntry.type == TTEntryType.LOWER_BOUND && score >= beta) {
+            if (type == TTEntryType.LOWER_BOUND && score >= beta) {
                 return score;
             }
-            if (ttEntry.type == TTEntryType.UPPER_BOUND && score <= alpha) {
+            if (type == TTEntryType.UPPER_BOUND && score <= alpha) {
                 return score;
             }
         }
@@ -358,10 +749,57 @@ public class SearchServiceV1 implements SearchService {
         transpositionTable.clear();
         moveOrderingService.clearKillerMoves();
         moveOrderingService.clearHistoryScores();
+        for (int i = 0; i < helpers.size(); i++) { // No iterator, so clearing between searches doesn't allocate
+            SearchServiceV1 helper = helpers.get(i);
+            helper.moveOrderingService.clearKillerMoves();
+            helper.moveOrderingService.clearHistoryScores();
+        }
+    }
+
+    /**
+     * Counts a node and, every {@code POLL_INTERVAL_NODES} nodes or once the node budget is reached,
+     * checks the stop flag and the clock.
+     *
+     * @return whether the search must stop
+     */
+    private boolean checkLimits() {
+        if (searchCancelled) return true;
+        long nodes = ++counters.nodes;
+        if (nodes >= nextPollNodes) {
+            if (isStopRequested()
+                    || (limits.hasNodeLimit() && nodes >= limits.getNodes())
+                    || (limits.hasTimeLimit() && !pondering && System.nanoTime() - deadlineNanos >= 0)) {
+                searchCancelled = true;
+            }
+            nextPollNodes = nodes + POLL_INTERVAL_NODES;
+            if (limits.hasNodeLimit()) nextPollNodes = Math.min(nextPollNodes, limits.getNodes());
+        }
+        return searchCancelled;
+    }
+
+    private boolean isStopRequested() {
+        return searchToken <= stoppedThrough.get();
+    }
+
+    /**
+     * @return counters of the last (or running) search on this thread
+     */
+    public SearchMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return nodes visited by the last (or running) search on this thread, quiescence nodes included
+     */
+    public long getNodeCount() {
+        return counters.nodes;
     }
 
-    private void checkSearchTimeout() {
-        if (System.currentTimeMillis() >= searchEndTime) searchCancelled = true;
+    /**
+     * @return nodes visited by the running search on all threads
+     */
+    public long getTotalNodeCount() {
+        return metrics.getNodes();
     }
 
     private boolean isSearchCancelled() {
@@ -370,7 +808,7 @@ public class SearchServiceV1 implements SearchService {
 
 
     private int evaluateBoard(BoardState state) {
-        return EvaluationService.evaluate(state);
+        return evaluator.evaluate(state);
     }
 
     private int getFallbackMove(BoardState boardState) {
@@ -379,9 +817,38 @@ public class SearchServiceV1 implements SearchService {
     }
 
 
-    private boolean isDrawishPosition(BoardState state) {
+    private static boolean isQuiet(int move) {
+        return Move.getCapturedPiece(move) == Piece.NONE && !Move.isPromotion(move);
+    }
+
+    /**
+     * Plies to reduce a late move by, from the log-based table and lowered for moves likely to matter.
+     * Called with the move already made.
+     */
+    private int lateMoveReduction(BoardState state, int move, int depth, int moveNumber, boolean pvNode, boolean inCheck, int currentPly) {
+        if (depth < LMR_MIN_DEPTH || moveNumber <= LMR_MIN_MOVES || inCheck) return 0;
+
+        int reduction = LMR_REDUCTIONS[Math.min(depth, SearchUtils.MAX_DEPTH)][Math.min(moveNumber, SearchUtils.MAX_MOVES)];
+        if (pvNode) reduction--;
+        if (!isQuiet(move)) reduction--;
+        if (move == moveOrderingService.getKillerMove(currentPly)) reduction--;
+        if (moveOrderingService.hasGoodHistory(move)) reduction--;
+        if (reduction > 0 && LegalMoveFilter.inCheck(state, state.isWhiteToMove())) reduction--; // The move gives check
+
+        return Math.max(0, Math.min(reduction, depth - 2)); // Always leave at least one ply
+    }
+
+    // Null moves are never tried twice in a row, nor when zugzwang is likely with only king and pawns left to move
+    private boolean canTryNullMove(BoardState state, int depth, int currentPly) {
+        if (depth < NULL_MOVE_MIN_DEPTH || currentPly < nullMoveMinPly) return false;
+        if (state.getLastMove() == Move.NULL_MOVE) return false;
+        long pawnsAndKings = state.getPiecesOfType(Piece.PAWN) | state.getPiecesOfType(Piece.KING);
+        return (state.getFriendlyPieces(state.isWhiteToMove()) & ~pawnsAndKings) != 0;
+    }
+
+    private boolean isDrawishPosition(BoardState state, int currentPly) {
         return GameStateChecker.isFiftyMoveRule(state) ||
-                GameStateChecker.isTwoFoldRepetition(state) ||
+                GameStateChecker.isRepetition(state, currentPly) ||
                 GameStateChecker.isInsufficientMaterial(state, false);
     }
 
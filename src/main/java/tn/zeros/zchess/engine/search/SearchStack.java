@@ -0,0 +1,19 @@
+package tn.zeros.zchess.engine.search;
+
+/**
+ * Per-thread, per-ply search state allocated once up front, so that nodes never allocate.
+ * Each ply owns a {@link MovePicker} together with its move lists.
+ */
+public class SearchStack {
+    private final MovePicker[] movePickers = new MovePicker[SearchUtils.MAX_PLY];
+
+    public SearchStack(MoveOrderingService moveOrderingService) {
+        for (int ply = 0; ply < movePickers.length; ply++) {
+            movePickers[ply] = new MovePicker(moveOrderingService);
+        }
+    }
+
+    public MovePicker movePicker(int ply) {
+        return movePickers[ply];
+    }
+}
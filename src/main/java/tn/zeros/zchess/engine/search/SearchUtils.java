@@ -7,23 +7,32 @@ public class SearchUtils {
     public static final int MIN_EVAL = -MAX_EVAL;
     public static final int CHECKMATE_EVAL = 200_000;
     public static final int MAX_DEPTH = 100;
-    public static final int MATE_THRESHOLD = CHECKMATE_EVAL - MAX_DEPTH;
+    public static final int MAX_PLY = MAX_DEPTH * 2; // Main search plies plus quiescence plies
+    public static final int MATE_THRESHOLD = CHECKMATE_EVAL - MAX_PLY; // Mate scores carry their distance from the root
     public static final int LOOKUP_FAILED = Integer.MIN_VALUE + 2;
+    public static final int DEFAULT_HASH_MB = 64;
 
+    /**
+     * Converts a search score, whose mate distance counts from the root, into a transposition table score
+     * counting from the node at {@code ply}, so the entry stays valid wherever the position recurs.
+     */
     public static int adjustMateScore(int score, int ply) {
         if (score > MATE_THRESHOLD) { // Positive mate (current player)
-            return score - ply; // Convert to root-relative
+            return score + ply;
         } else if (score < -MATE_THRESHOLD) { // Negative mate (opponent)
-            return score + ply; // Convert to root-relative
+            return score - ply;
         }
         return score;
     }
 
+    /**
+     * Converts a transposition table score back into a search score for a node at {@code currentPly}.
+     */
     public static int unadjustMateScore(int adjustedScore, int currentPly) {
-        if (adjustedScore > MATE_THRESHOLD) { // Positive mate (root-relative)
-            return adjustedScore + currentPly; // Convert to current-ply-relative
-        } else if (adjustedScore < -MATE_THRESHOLD) { // Negative mate (root-relative)
-            return adjustedScore - currentPly; // Convert to current-ply-relative
+        if (adjustedScore > MATE_THRESHOLD) { // Positive mate (node-relative)
+            return adjustedScore - currentPly;
+        } else if (adjustedScore < -MATE_THRESHOLD) { // Negative mate (node-relative)
+            return adjustedScore + currentPly;
         }
         return adjustedScore;
     }
@@ -0,0 +1,165 @@
+package tn.zeros.zchess.engine.search;
+
+import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.core.model.Move;
+import tn.zeros.zchess.core.model.Piece;
+import tn.zeros.zchess.core.util.PrecomputedMoves;
+import tn.zeros.zchess.engine.evaluate.EvalUtils;
+
+/**
+ * Static exchange evaluation: the material balance of the capture sequence on a move's target square,
+ * each side recapturing with its least valuable attacker and free to stop when continuing would lose.
+ * <p>
+ * Attackers are found on bitboards; when a slider or pawn leaves the square's lines, the rook and bishop
+ * magics are queried again with the reduced occupancy to discover the x-ray attackers behind it. Pins
+ * are ignored.
+ */
+public final class StaticExchangeEvaluator {
+    private static final int MAX_EXCHANGES = 32;
+
+    private StaticExchangeEvaluator() {
+    }
+
+    /**
+     * @return the exchange value of the move for the side making it, in centipawns
+     */
+    public static int see(BoardState state, int move) {
+        if (Move.isCastling(move)) return 0;
+
+        int to = Move.getTo(move);
+        long occupied = initialOccupancy(state, move);
+        long attackers = attackersTo(state, to, occupied);
+        boolean white = state.isWhiteToMove();
+
+        int[] gain = new int[MAX_EXCHANGES];
+        int depth = 0;
+        gain[0] = captureGain(move);
+        int onSquare = pieceValueAfter(move);
+
+        while (depth + 1 < MAX_EXCHANGES) {
+            white = !white;
+            attackers &= occupied;
+            long sideAttackers = attackers & state.getFriendlyPieces(white);
+            if (sideAttackers == 0) break;
+
+            int attackerType = leastValuableAttacker(state, sideAttackers, white);
+            // A king can only recapture when the square is no longer defended
+            if (attackerType == Piece.KING && (attackers & state.getFriendlyPieces(!white)) != 0) break;
+
+            depth++;
+            gain[depth] = onSquare - gain[depth - 1];
+            onSquare = EvalUtils.getPieceTypeValue(attackerType);
+
+            long attacker = sideAttackers & state.getPieces(attackerType, white ? Piece.WHITE : Piece.BLACK);
+            occupied ^= attacker & -attacker;
+            attackers |= xrayAttackers(state, to, occupied, attackerType);
+        }
+
+        // Either side may stand pat instead of continuing the exchange
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+
+    /**
+     * Whether the move's exchange value is at least {@code threshold}, without computing it exactly.
+     * Cheaper than {@link #see} since it stops as soon as the outcome is decided.
+     */
+    public static boolean seeGE(BoardState state, int move, int threshold) {
+        if (Move.isCastling(move)) return threshold <= 0;
+
+        int swap = captureGain(move) - threshold;
+        if (swap < 0) return false; // Even an undefended capture falls short
+
+        swap = pieceValueAfter(move) - swap;
+        if (swap <= 0) return true; // Even losing the moved piece keeps the threshold
+
+        int to = Move.getTo(move);
+        long occupied = initialOccupancy(state, move);
+        long attackers = attackersTo(state, to, occupied);
+        boolean white = state.isWhiteToMove();
+        boolean result = true;
+
+        while (true) {
+            white = !white;
+            attackers &= occupied;
+            long sideAttackers = attackers & state.getFriendlyPieces(white);
+            if (sideAttackers == 0) break;
+
+            result = !result;
+            int attackerType = leastValuableAttacker(state, sideAttackers, white);
+            if (attackerType == Piece.KING) {
+                // Capturing with the king only works if the other side has nothing left
+                return (attackers & state.getFriendlyPieces(!white)) != 0 ? !result : result;
+            }
+
+            swap = EvalUtils.getPieceTypeValue(attackerType) - swap;
+            if (swap < (result ? 1 : 0)) break;
+
+            long attacker = sideAttackers & state.getPieces(attackerType, white ? Piece.WHITE : Piece.BLACK);
+            occupied ^= attacker & -attacker;
+            attackers |= xrayAttackers(state, to, occupied, attackerType);
+        }
+        return result;
+    }
+
+    private static int captureGain(int move) {
+        int captured = Move.getCapturedPiece(move);
+        int gain = captured == Piece.NONE ? 0 : EvalUtils.getPieceTypeValue(Piece.getType(captured));
+        if (Move.isPromotion(move)) {
+            gain += EvalUtils.getPieceTypeValue(Piece.getType(Move.getPromotionPiece(move))) - EvalUtils.PAWN_VALUE;
+        }
+        return gain;
+    }
+
+    // Value of the piece standing on the target square once the move is made
+    private static int pieceValueAfter(int move) {
+        int piece = Move.isPromotion(move) ? Move.getPromotionPiece(move) : Move.getPiece(move);
+        return EvalUtils.getPieceTypeValue(Piece.getType(piece));
+    }
+
+    private static long initialOccupancy(BoardState state, int move) {
+        int from = Move.getFrom(move);
+        int to = Move.getTo(move);
+        long occupied = (state.getAllPieces() ^ (1L << from)) | (1L << to);
+        if (Move.isEnPassant(move)) {
+            occupied ^= 1L << (to + (Piece.isWhite(Move.getPiece(move)) ? -8 : 8));
+        }
+        return occupied;
+    }
+
+    private static long attackersTo(BoardState state, int square, long occupied) {
+        long bishopsQueens = state.getPiecesOfType(Piece.BISHOP) | state.getPiecesOfType(Piece.QUEEN);
+        long rooksQueens = state.getPiecesOfType(Piece.ROOK) | state.getPiecesOfType(Piece.QUEEN);
+        return (PrecomputedMoves.getPawnAttacks(square, true) & state.getPieces(Piece.PAWN, Piece.BLACK))
+                | (PrecomputedMoves.getPawnAttacks(square, false) & state.getPieces(Piece.PAWN, Piece.WHITE))
+                | (PrecomputedMoves.getKnightMoves(square, 0L) & state.getPiecesOfType(Piece.KNIGHT))
+                | (PrecomputedMoves.getKingMoves(square, 0L) & state.getPiecesOfType(Piece.KING))
+                | (PrecomputedMoves.getMagicBishopAttack(square, occupied) & bishopsQueens)
+                | (PrecomputedMoves.getMagicRookAttack(square, occupied) & rooksQueens);
+    }
+
+    // Sliders revealed behind an attacker that just left the square's diagonal or line
+    private static long xrayAttackers(BoardState state, int square, long occupied, int attackerType) {
+        long revealed = 0;
+        if (attackerType == Piece.PAWN || attackerType == Piece.BISHOP || attackerType == Piece.QUEEN) {
+            revealed |= PrecomputedMoves.getMagicBishopAttack(square, occupied)
+                    & (state.getPiecesOfType(Piece.BISHOP) | state.getPiecesOfType(Piece.QUEEN));
+        }
+        if (attackerType == Piece.ROOK || attackerType == Piece.QUEEN) {
+            revealed |= PrecomputedMoves.getMagicRookAttack(square, occupied)
+                    & (state.getPiecesOfType(Piece.ROOK) | state.getPiecesOfType(Piece.QUEEN));
+        }
+        return revealed;
+    }
+
+    private static int leastValuableAttacker(BoardState state, long sideAttackers, boolean white) {
+        int color = white ? Piece.WHITE : Piece.BLACK;
+        for (int type = Piece.PAWN; type < Piece.KING; type++) {
+            if ((sideAttackers & state.getPieces(type, color)) != 0) return type;
+        }
+        return Piece.KING;
+    }
+}
@@ -0,0 +1,109 @@
+package tn.zeros.zchess.engine.search;
+
+/**
+ * Splits the game clock into per-move search budgets.
+ * <p>
+ * The hard limit is enforced by the search itself and is never exceeded. The soft limit is checked
+ * between iterations and scaled by how the search is going: an unstable best move or a dropping score
+ * buys more time, a best move that has not changed for several iterations gives time back. An iteration
+ * is not started when its predicted duration would run past the hard limit.
+ */
+public class TimeManager {
+    public static final long DEFAULT_MOVE_OVERHEAD_MS = 50; // GUI and scheduling latency
+    private static final int SUDDEN_DEATH_MOVES_TO_GO = 30; // Moves the remaining time should last without movestogo
+    private static final int MAX_MOVES_TO_GO = 50;
+    private static final double MIN_BRANCHING_FACTOR = 1.5;
+    private static final double MAX_BRANCHING_FACTOR = 6.0;
+    private static final int SCORE_DROP_MARGIN = 30;
+    private static final int LARGE_SCORE_DROP_MARGIN = 80;
+    private static final int STABLE_ITERATIONS = 4;
+
+    private final long softLimitMs;
+    private final long hardLimitMs;
+
+    private boolean singleReply;
+    private boolean hasPreviousIteration;
+    private int previousBestMove;
+    private int previousScore;
+    private int stableIterations;
+    private long lastIterationMs;
+    private long previousIterationMs;
+    private long lastIterationEndMs;
+
+    /**
+     * @param remainingMs time left on the side to move's clock
+     * @param incrementMs time added after each move
+     * @param movesToGo   moves until the next time control, or 0 for sudden death
+     */
+    public TimeManager(long remainingMs, long incrementMs, int movesToGo) {
+        this(remainingMs, incrementMs, movesToGo, DEFAULT_MOVE_OVERHEAD_MS);
+    }
+
+    public TimeManager(long remainingMs, long incrementMs, int movesToGo, long moveOverheadMs) {
+        long available = Math.max(1, remainingMs - moveOverheadMs);
+        int moves = movesToGo > 0 ? Math.min(movesToGo, MAX_MOVES_TO_GO) : SUDDEN_DEATH_MOVES_TO_GO;
+
+        // With a single move left the whole budget may be used, otherwise keep a reserve for later moves
+        long hard = moves == 1 ? available : Math.min(available * 3 / 4, (available / moves + incrementMs) * 4);
+        long soft = Math.min(available / moves + incrementMs * 3 / 4, hard / 2);
+        this.hardLimitMs = Math.max(1, hard);
+        this.softLimitMs = Math.max(1, Math.min(soft, hardLimitMs));
+    }
+
+    public long getSoftLimitMs() {
+        return softLimitMs;
+    }
+
+    public long getHardLimitMs() {
+        return hardLimitMs;
+    }
+
+    /**
+     * Marks the root as having a single legal move, which is then played after the first iteration.
+     */
+    public void setSingleReply(boolean singleReply) {
+        this.singleReply = singleReply;
+    }
+
+    /**
+     * Records a completed iteration and decides whether to start the next one.
+     *
+     * @param bestMove  best root move of the iteration
+     * @param score     its score
+     * @param elapsedMs time since the search started
+     * @return whether the search should stop now
+     */
+    public boolean onIterationComplete(int bestMove, int score, long elapsedMs) {
+        previousIterationMs = lastIterationMs;
+        lastIterationMs = elapsedMs - lastIterationEndMs;
+        lastIterationEndMs = elapsedMs;
+
+        double scale = 1.0;
+        if (hasPreviousIteration) {
+            if (bestMove == previousBestMove) {
+                stableIterations++;
+            } else {
+                stableIterations = 0;
+                scale *= 1.6; // Best move changed: the position needs a closer look
+            }
+            int drop = previousScore - score;
+            if (drop > LARGE_SCORE_DROP_MARGIN) scale *= 1.8;
+            else if (drop > SCORE_DROP_MARGIN) scale *= 1.3;
+        }
+        if (stableIterations >= STABLE_ITERATIONS) scale *= 0.6; // Easy move
+        hasPreviousIteration = true;
+        previousBestMove = bestMove;
+        previousScore = score;
+
+        if (singleReply) return true;
+        if (elapsedMs >= Math.min(hardLimitMs, (long) (softLimitMs * scale))) return true;
+        return elapsedMs + predictNextIterationMs() > hardLimitMs;
+    }
+
+    // Next iteration time from the growth between the last two (the effective branching factor)
+    private long predictNextIterationMs() {
+        double branchingFactor = previousIterationMs > 0 ? (double) lastIterationMs / previousIterationMs : MAX_BRANCHING_FACTOR;
+        branchingFactor = Math.max(MIN_BRANCHING_FACTOR, Math.min(branchingFactor, MAX_BRANCHING_FACTOR));
+        return (long) (lastIterationMs * branchingFactor);
+    }
+}
@@ -1,81 +1,189 @@
 package tn.zeros.zchess.engine.search;
 
+import tn.zeros.zchess.core.model.Move;
+
+import java.util.Arrays;
+
+/**
+ * Transposition table backed by a single primitive {@code long[]}.
+ * <p>
+ * Entries are grouped in buckets of {@link #BUCKET_SIZE} and each entry takes two longs:
+ * <ul>
+ *     <li>a key word: the upper 56 bits of the zobrist key plus an 8-bit search generation</li>
+ *     <li>a data word: move (32 bits), score (21 bits), depth (7 bits) and bound type (2 bits)</li>
+ * </ul>
+ * The key word is stored XOR-ed with the data word, so a torn read from a concurrent writer
+ * simply fails verification instead of returning mixed data. No objects are allocated by
+ * {@link #probe(long)} or {@link #store}.
+ */
 public class TranspositionTable {
-    public final Entry[] table;
+    public static final int BUCKET_SIZE = 4;
+    public static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+    public static final long NO_ENTRY = 0L;
+    public static final int MAX_ENTRIES = 1 << 29; // Two longs per entry, so the array length stays an int
+
+    private static final long KEY_MASK = 0xFFFFFFFFFFFFFF00L;
+    private static final int GENERATION_MASK = 0xFF;
+
+    private static final int SCORE_SHIFT = 32;
+    private static final int SCORE_BITS = 21;
+    private static final long SCORE_MASK = (1L << SCORE_BITS) - 1;
+    private static final int DEPTH_SHIFT = SCORE_SHIFT + SCORE_BITS;
+    private static final long DEPTH_MASK = 0x7F;
+    private static final int TYPE_SHIFT = DEPTH_SHIFT + 7;
+    private static final long TYPE_MASK = 0x3;
+
+    private static final TTEntryType[] TYPES = {null, TTEntryType.EXACT, TTEntryType.LOWER_BOUND, TTEntryType.UPPER_BOUND};
+
     public final int size;
-    private final int indexMask;
+    private final long[] table;
+    private final int bucketMask;
+    private int generation;
 
+    /**
+     * @param size maximum number of entries; the number of buckets is rounded down to a power of two
+     */
     public TranspositionTable(int size) {
-        this.size = nearestPowerOfTwo(size);
-        this.table = new Entry[this.size];
-        this.indexMask = this.size - 1;
+        int buckets = Integer.highestOneBit(Math.max(BUCKET_SIZE, Math.min(size, MAX_ENTRIES)) / BUCKET_SIZE);
+        this.size = buckets * BUCKET_SIZE;
+        this.table = new long[this.size * 2];
+        this.bucketMask = buckets - 1;
     }
 
-    private static int nearestPowerOfTwo(int n) {
-        if (n <= 0) return 1; // Handle cases where size is 0 or negative, return minimum size 1
-        n--;
-        n |= n >> 1;
-        n |= n >> 2;
-        n |= n >> 4;
-        n |= n >> 8;
-        n |= n >> 16;
-        return n + 1;
+    /**
+     * Creates the largest table fitting in the given memory, as UCI's {@code Hash} option is a ceiling:
+     * 3000 MB gives a 2048 MB table. Capped at {@link #MAX_ENTRIES} entries (8 GB).
+     */
+    public static TranspositionTable ofMegabytes(int megabytes) {
+        long entries = ((long) megabytes << 20) / BYTES_PER_ENTRY;
+        return new TranspositionTable((int) Math.min(entries, MAX_ENTRIES));
     }
 
-    public Entry get(long key) {
-        int index = (int) (key & indexMask);
-        Entry entry = table[index];
-        return (entry != null && entry.key == key) ? entry : null;
+    /**
+     * Looks up the given position.
+     *
+     * @return the packed data word, or {@link #NO_ENTRY} when the position is not stored.
+     * Decode it with {@link #getMove}, {@link #getScore}, {@link #getDepth} and {@link #getType}.
+     */
+    public long probe(long key) {
+        int base = bucketBase(key);
+        for (int i = base; i < base + BUCKET_SIZE * 2; i += 2) {
+            long data = table[i + 1];
+            if (data != NO_ENTRY && ((table[i] ^ data) & KEY_MASK) == (key & KEY_MASK)) {
+                return data;
+            }
+        }
+        return NO_ENTRY;
     }
 
-    public void put(long key, int depth, int score, TTEntryType type, int bestMove, int age) {
+    public void store(long key, int depth, int score, TTEntryType type, int bestMove) {
         if (SearchUtils.isTimeout(score)) return;
-        int index = (int) (key & indexMask);
-        Entry currentEntry = table[index];
-
-        if (currentEntry == null) { // Slot is empty, always replace
-            table[index] = new Entry(key, depth, score, type, bestMove, age);
-        } else if (currentEntry.key == key) { // Same position
-            if (depth >= currentEntry.depth) { // Deeper or same depth, replace
-                table[index] = new Entry(key, depth, score, type, bestMove, age);
+        int base = bucketBase(key);
+        int replace = base;
+        int replaceWorth = Integer.MAX_VALUE;
+
+        for (int i = base; i < base + BUCKET_SIZE * 2; i += 2) {
+            long data = table[i + 1];
+            if (data == NO_ENTRY) { // Empty slot, take the first one unless the key is found later
+                if (replaceWorth > Integer.MIN_VALUE) {
+                    replace = i;
+                    replaceWorth = Integer.MIN_VALUE;
+                }
+                continue;
             }
-        } else { // Hash collision: Replacement strategy
-            if (type == TTEntryType.EXACT) { // Always prioritize exact scores
-                table[index] = new Entry(key, depth, score, type, bestMove, age);
-            } else if (currentEntry.type != TTEntryType.EXACT) { // If current is not exact, replace if new depth is greater
-                if (depth >= currentEntry.depth) {
-                    table[index] = new Entry(key, depth, score, type, bestMove, age);
+
+            long keyWord = table[i] ^ data;
+            if ((keyWord & KEY_MASK) == (key & KEY_MASK)) { // Same position
+                if (depth < getDepth(data) && type != TTEntryType.EXACT && entryGeneration(keyWord) == generation) {
+                    return; // Keep the deeper result from this search
                 }
-            } // Else: if current is EXACT, and new is BOUND, keep the EXACT one
+                if (bestMove == Move.NULL_MOVE) bestMove = getMove(data); // Preserve the known best move
+                write(i, key, depth, score, type, bestMove);
+                return;
+            }
+
+            // Older generations and shallower entries are replaced first
+            int worth = getDepth(data) - 8 * relativeAge(keyWord);
+            if (worth < replaceWorth) {
+                replace = i;
+                replaceWorth = worth;
+            }
         }
+        write(replace, key, depth, score, type, bestMove);
+    }
+
+    private void write(int index, long key, int depth, int score, TTEntryType type, int bestMove) {
+        long data = (bestMove & 0xFFFFFFFFL)
+                | ((score & SCORE_MASK) << SCORE_SHIFT)
+                | ((Math.min(depth, (int) DEPTH_MASK) & DEPTH_MASK) << DEPTH_SHIFT)
+                | ((long) (type.ordinal() + 1) << TYPE_SHIFT);
+        table[index] = ((key & KEY_MASK) | generation) ^ data;
+        table[index + 1] = data;
+    }
+
+    private int bucketBase(long key) {
+        return (int) (key & bucketMask) * BUCKET_SIZE * 2;
+    }
+
+    private int relativeAge(long keyWord) {
+        return (generation - entryGeneration(keyWord)) & GENERATION_MASK;
+    }
+
+    private static int entryGeneration(long keyWord) {
+        return (int) (keyWord & GENERATION_MASK);
+    }
+
+    public static int getMove(long data) {
+        return (int) data;
+    }
+
+    public static int getScore(long data) {
+        return (int) ((data << (64 - SCORE_SHIFT - SCORE_BITS)) >> (64 - SCORE_BITS)); // Sign-extend
+    }
+
+    public static int getDepth(long data) {
+        return (int) ((data >>> DEPTH_SHIFT) & DEPTH_MASK);
+    }
+
+    public static TTEntryType getType(long data) {
+        return TYPES[(int) ((data >>> TYPE_SHIFT) & TYPE_MASK)];
+    }
+
+    /**
+     * Starts a new search generation so that entries from previous searches age out.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & GENERATION_MASK;
+    }
+
+    public int getGeneration() {
+        return generation;
     }
 
     public void clear() {
-        for (int i = 0; i < size; i++) {
-            table[i] = null;
+        Arrays.fill(table, 0L);
+        generation = 0;
+    }
+
+    /**
+     * Estimates the table usage in permille from the first thousand entries, counting only entries
+     * written by the current search as UCI's {@code hashfull} expects.
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, size);
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            long data = table[2 * i + 1];
+            if (data != NO_ENTRY && entryGeneration(table[2 * i] ^ data) == generation) used++;
         }
+        return used * 1000 / sample;
     }
 
     public int getOccupancy() {
         int count = 0;
-        for (Entry entry : table) {
-            if (entry != null) count++;
+        for (int i = 1; i < table.length; i += 2) {
+            if (table[i] != NO_ENTRY) count++;
         }
         return count;
     }
-
-    public static class Entry {
-        public long key;
-        public TTEntryType type;
-        public int depth, score, bestMove, age;
-
-        public Entry(long key, int depth, int score, TTEntryType type, int bestMove, int age) {
-            this.key = key;
-            this.depth = depth;
-            this.score = score;
-            this.type = type;
-            this.bestMove = bestMove;
-            this.age = age;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,388 @@
+package tn.zeros.zchess.uci;
+
+import tn.zeros.zchess.core.logic.Perft;
+import tn.zeros.zchess.core.logic.generation.MoveGenerator;
+import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.core.model.Move;
+import tn.zeros.zchess.core.service.FenService;
+import tn.zeros.zchess.core.service.MoveExecutor;
+import tn.zeros.zchess.core.util.ChessConstants;
+import tn.zeros.zchess.engine.evaluate.EvaluatorType;
+import tn.zeros.zchess.engine.harness.Bench;
+import tn.zeros.zchess.engine.search.SearchInfo;
+import tn.zeros.zchess.engine.search.SearchLimits;
+import tn.zeros.zchess.engine.search.SearchServiceV1;
+import tn.zeros.zchess.engine.search.SearchUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Universal Chess Interface front-end, so the engine can run under tournament managers and on headless
+ * machines: {@code java -cp ZChess.jar tn.zeros.zchess.uci.UciEngine}. Only core and engine classes are
+ * used, no JavaFX class is loaded.
+ * <p>
+ * Commands are read on the calling thread while searches run on a dedicated thread, so {@code stop},
+ * {@code ponderhit} and {@code isready} are handled during a search. Besides the standard commands,
+ * {@code go perft <depth>} prints a perft divide of the current position and {@code bench [depth]} runs
+ * {@link Bench}.
+ */
+public class UciEngine {
+    public static final String NAME = "ZChess";
+    public static final String AUTHOR = "ZeroS";
+    private static final int MAX_HASH_MB = 4096;
+    private static final int MAX_THREADS = 256;
+
+    private final BufferedReader in;
+    private final PrintStream out;
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "uci-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private SearchServiceV1 searchService; // Created lazily, and again when the hash size or evaluator changes
+    private int hashMegabytes = SearchUtils.DEFAULT_HASH_MB;
+    private int threads = 1;
+    private EvaluatorType evaluatorType = EvaluatorType.CLASSICAL;
+    private BoardState position = FenService.parseFEN(ChessConstants.DEFAULT_FEN, new BoardState());
+    private Future<?> search;
+    private Perft perft; // Created lazily, its pool is reused by every "go perft"
+    private boolean perftPending;
+
+    // "go infinite" must not report its move before "stop", even when the search ends on its own
+    private final Object holdLock = new Object();
+    private boolean holdBestMove;
+
+    public UciEngine(InputStream in, PrintStream out) {
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        new UciEngine(System.in, System.out).run();
+    }
+
+    /**
+     * Processes commands until {@code quit} or the end of the input.
+     */
+    public void run() throws IOException {
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!handle(line.trim())) break;
+            }
+        } finally {
+            stopSearch();
+            searchExecutor.shutdownNow();
+            if (perft != null) perft.close();
+        }
+    }
+
+    /**
+     * @return false once the engine should exit
+     */
+    boolean handle(String line) {
+        if (line.isEmpty()) return true;
+        String[] tokens = line.split("\\s+");
+        switch (tokens[0]) {
+            case "uci" -> identify();
+            case "isready" -> {
+                service();
+                send("readyok");
+            }
+            case "setoption" -> setOption(line);
+            case "ucinewgame" -> {
+                stopSearch();
+                service().clear();
+            }
+            case "position" -> setPosition(tokens);
+            case "go" -> go(tokens);
+            case "stop" -> stopSearch();
+            case "ponderhit" -> service().ponderHit();
+            case "bench" -> {
+                stopSearch();
+                int depth;
+                try {
+                    depth = tokens.length > 1 ? Integer.parseInt(tokens[1]) : Bench.DEFAULT_DEPTH;
+                } catch (NumberFormatException e) {
+                    send("info string Invalid bench depth: " + tokens[1]);
+                    return true;
+                }
+                Bench.run(depth, out);
+            }
+            case "quit" -> {
+                return false;
+            }
+            default -> send("info string Unknown command: " + line);
+        }
+        return true;
+    }
+
+    private void identify() {
+        send("id name " + NAME);
+        send("id author " + AUTHOR);
+        send("option name Hash type spin default " + SearchUtils.DEFAULT_HASH_MB + " min 1 max " + MAX_HASH_MB);
+        send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+        send("option name Ponder type check default false");
+        send("option name Evaluator type combo default " + EvaluatorType.CLASSICAL
+                + " var " + EvaluatorType.CLASSICAL + " var " + EvaluatorType.NNUE);
+        send("uciok");
+    }
+
+    private void setOption(String line) {
+        int nameIndex = line.indexOf(" name ");
+        if (nameIndex < 0) return;
+        int valueIndex = line.indexOf(" value ");
+        String name = (valueIndex < 0 ? line.substring(nameIndex + 6) : line.substring(nameIndex + 6, valueIndex)).trim();
+        String value = valueIndex < 0 ? "" : line.substring(valueIndex + 7).trim();
+
+        stopSearch();
+        try {
+            switch (name.toLowerCase(Locale.ROOT)) {
+                case "hash" -> {
+                    hashMegabytes = Math.max(1, Math.min(Integer.parseInt(value), MAX_HASH_MB));
+                    searchService = null;
+                }
+                case "threads" -> {
+                    threads = Math.max(1, Math.min(Integer.parseInt(value), MAX_THREADS));
+                    if (searchService != null) searchService.setThreadCount(threads);
+                }
+                case "evaluator" -> {
+                    evaluatorType = EvaluatorType.valueOf(value.toUpperCase(Locale.ROOT));
+                    searchService = null;
+                }
+                case "ponder" -> {
+                    // Pondering is driven by "go ponder", nothing to configure
+                }
+                default -> send("info string Unknown option: " + name);
+            }
+        } catch (IllegalArgumentException e) {
+            send("info string Invalid value for " + name + ": " + value);
+        }
+    }
+
+    private void setPosition(String[] tokens) {
+        int movesIndex = indexOf(tokens, "moves");
+        int end = movesIndex < 0 ? tokens.length : movesIndex;
+        BoardState state;
+        try {
+            if (tokens.length > 1 && tokens[1].equals("startpos")) {
+                state = FenService.parseFEN(ChessConstants.DEFAULT_FEN, new BoardState());
+            } else if (tokens.length > 2 && tokens[1].equals("fen")) {
+                state = FenService.parseFEN(String.join(" ", Arrays.copyOfRange(tokens, 2, end)), new BoardState());
+            } else {
+                send("info string Invalid position command");
+                return;
+            }
+        } catch (IllegalArgumentException e) {
+            send("info string Invalid FEN: " + e.getMessage());
+            return;
+        }
+
+        // Moves are played on the board so the search sees the game history for repetitions
+        for (int i = movesIndex + 1; movesIndex >= 0 && i < tokens.length; i++) {
+            int move = parseMove(state, tokens[i]);
+            if (move == Move.NULL_MOVE) {
+                send("info string Illegal move: " + tokens[i]);
+                break;
+            }
+            MoveExecutor.makeMove(state, move);
+        }
+        position = state;
+    }
+
+    /**
+     * @return the legal move written in UCI coordinates, or {@link Move#NULL_MOVE}
+     */
+    static int parseMove(BoardState state, String uciMove) {
+        MoveGenerator.MoveList moves = MoveGenerator.generateAllMoves(state, false);
+        for (int i = 0; i < moves.size; i++) {
+            if (ChessConstants.moveToUCI(moves.moves[i]).equals(uciMove)) return moves.moves[i];
+        }
+        return Move.NULL_MOVE;
+    }
+
+    private void go(String[] tokens) {
+        stopSearch();
+
+        boolean white = position.isWhiteToMove();
+        long clockMs = -1; // Absent, 0 is a valid (flagging) clock
+        long incrementMs = 0;
+        int movesToGo = 0;
+        boolean infinite = false;
+        boolean ponder = false;
+        SearchLimits limits = SearchLimits.infinite();
+
+        try {
+            for (int i = 1; i < tokens.length; i++) {
+                switch (tokens[i]) {
+                    case "wtime" -> clockMs = white ? Long.parseLong(tokens[++i]) : skip(tokens, ++i, clockMs);
+                    case "btime" -> clockMs = !white ? Long.parseLong(tokens[++i]) : skip(tokens, ++i, clockMs);
+                    case "winc" -> incrementMs = white ? Long.parseLong(tokens[++i]) : skip(tokens, ++i, incrementMs);
+                    case "binc" -> incrementMs = !white ? Long.parseLong(tokens[++i]) : skip(tokens, ++i, incrementMs);
+                    case "movestogo" -> movesToGo = Integer.parseInt(tokens[++i]);
+                    case "depth" -> limits = limits.withDepth(Integer.parseInt(tokens[++i]));
+                    case "nodes" -> limits = limits.withNodes(Long.parseLong(tokens[++i]));
+                    case "mate" -> limits = limits.withMate(Integer.parseInt(tokens[++i]));
+                    case "movetime" -> limits = limits.withTime(Long.parseLong(tokens[++i]));
+                    case "infinite" -> infinite = true;
+                    case "ponder" -> ponder = true;
+                    case "perft" -> {
+                        perft(Integer.parseInt(tokens[++i]));
+                        return;
+                    }
+                    default -> {
+                        // searchmoves and unknown tokens are ignored
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            send("info string Invalid go command");
+            return;
+        }
+        if (clockMs >= 0) {
+            limits = limits.withClock(clockMs, incrementMs, movesToGo);
+        }
+        // A bare "go" searches until "stop", like "go infinite"
+        boolean limited = limits.hasTimeLimit() || limits.hasNodeLimit() || limits.hasClock()
+                || limits.getDepth() < SearchUtils.MAX_DEPTH;
+
+        SearchServiceV1 service = service();
+        if (ponder) service.startPondering(); // Before the search thread starts, so an early ponderhit isn't lost
+        long token = service.newSearchToken(); // Likewise for an early stop
+        synchronized (holdLock) {
+            holdBestMove = infinite || !limited;
+        }
+        BoardState root = position.clone();
+        SearchLimits searchLimits = limits;
+        search = searchExecutor.submit(() -> {
+            int bestMove = service.startSearch(root, searchLimits, token);
+            awaitRelease();
+            int[] pv = service.getPrincipalVariation();
+            String ponderMove = pv.length > 1 && pv[0] == bestMove ? " ponder " + ChessConstants.moveToUCI(pv[1]) : "";
+            send("bestmove " + (bestMove == Move.NULL_MOVE ? "0000" : ChessConstants.moveToUCI(bestMove)) + ponderMove);
+        });
+    }
+
+    private static long skip(String[] tokens, int index, long current) {
+        Long.parseLong(tokens[index]); // Still validated
+        return current;
+    }
+
+    private void perft(int depth) {
+        if (perft == null) perft = new Perft();
+        Perft counter = perft;
+        BoardState root = position.clone();
+        perftPending = true;
+        search = searchExecutor.submit(() -> {
+            long start = System.nanoTime();
+            Map<Integer, Long> counts;
+            try {
+                counts = counter.divide(root, depth);
+            } catch (CancellationException e) {
+                send("info string Perft " + depth + " stopped");
+                return;
+            }
+            long total = 0;
+            for (Map.Entry<Integer, Long> entry : counts.entrySet()) {
+                send(ChessConstants.moveToUCI(entry.getKey()) + ": " + entry.getValue());
+                total += entry.getValue();
+            }
+            long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            send("");
+            send("Nodes searched: " + total);
+            send("info string Perft " + depth + " took " + elapsedMs + " ms (" + total * 1000 / elapsedMs + " nodes/s)");
+        });
+    }
+
+    /**
+     * Stops the running search and waits until it has reported its move.
+     */
+    private void stopSearch() {
+        if (search == null) return;
+        synchronized (holdLock) {
+            holdBestMove = false;
+            holdLock.notifyAll();
+        }
+        if (searchService != null) searchService.stop(); // Also aborts a search whose thread hasn't started it yet
+        if (perftPending) perft.stop(); // Likewise, a perft that hasn't started is aborted once it does
+        try {
+            search.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            send("info string Search failed: " + e.getCause());
+        }
+        search = null;
+        perftPending = false;
+    }
+
+    private void awaitRelease() {
+        synchronized (holdLock) {
+            while (holdBestMove) {
+                try {
+                    holdLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private SearchServiceV1 service() {
+        if (searchService == null) {
+            searchService = new SearchServiceV1(SearchLimits.NO_LIMIT, evaluatorType, hashMegabytes);
+            searchService.setThreadCount(threads);
+            searchService.setInfoListener(this::sendInfo);
+        }
+        return searchService;
+    }
+
+    private void sendInfo(SearchInfo info) {
+        StringBuilder sb = new StringBuilder("info depth ").append(info.depth());
+        if (info.mateIn() != 0) {
+            sb.append(" score mate ").append(info.mateIn());
+        } else {
+            sb.append(" score cp ").append(info.score());
+        }
+        sb.append(" nodes ").append(info.nodes())
+                .append(" nps ").append(info.nodesPerSecond())
+                .append(" hashfull ").append(info.hashfull())
+                .append(" time ").append(info.timeMs());
+        if (info.pv().length > 0) {
+            sb.append(" pv");
+            for (int move : info.pv()) {
+                sb.append(' ').append(ChessConstants.moveToUCI(move));
+            }
+        }
+        send(sb.toString());
+    }
+
+    private void send(String message) {
+        synchronized (out) {
+            out.println(message);
+            out.flush();
+        }
+    }
+
+    private static int indexOf(String[] tokens, String token) {
+        for (int i = 0; i < tokens.length; i++) {
+            if (tokens[i].equals(token)) return i;
+        }
+        return -1;
+    }
+}
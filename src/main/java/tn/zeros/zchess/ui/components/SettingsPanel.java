@@ -6,14 +6,18 @@ import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
+import tn.zeros.zchess.engine.evaluate.EvaluatorType;
+import tn.zeros.zchess.engine.harness.SuiteReport;
 import tn.zeros.zchess.engine.harness.TestHarness;
 import tn.zeros.zchess.engine.models.EngineModel;
 import tn.zeros.zchess.engine.models.ModelV1;
 import tn.zeros.zchess.engine.models.RandomMoveModel;
+import tn.zeros.zchess.engine.search.SearchLimits;
 import tn.zeros.zchess.ui.controller.ChessController;
 import tn.zeros.zchess.ui.matchmaker.GameMode;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Objects;
 
@@ -42,11 +46,11 @@ public class SettingsPanel extends VBox {
         gameModeCombo.setOnAction(e -> updateGameModeSettings());
 
         whiteModelCombo = new ComboBox<>();
-        whiteModelCombo.getItems().setAll("V1", "Random");
+        whiteModelCombo.getItems().setAll("V1", "V1 NNUE", "Random");
         whiteModelCombo.getSelectionModel().select("V1");
 
         blackModelCombo = new ComboBox<>();
-        blackModelCombo.getItems().setAll("V1", "Random");
+        blackModelCombo.getItems().setAll("V1", "V1 NNUE", "Random");
         blackModelCombo.getSelectionModel().select("V1");
 
         modelColorGroup = new ToggleGroup();
@@ -155,29 +159,33 @@ public class SettingsPanel extends VBox {
     private EngineModel createEngineFromString(String engineType, long time) {
         return switch (engineType) {
             case "V1" -> new ModelV1(time);
+            case "V1 NNUE" -> new ModelV1(time, 1, EvaluatorType.NNUE);
             case "Random" -> new RandomMoveModel();
             default -> new ModelV1(time);
         };
     }
 
     private void runTestSuite() {
+        long time = timeSpinner.getValue();
+        String modelType = blackModelCombo.getValue();
         new Thread(() -> {
             try {
                 Path testPath = Path.of("test_suites/WAC.epd");
-                EngineModel model = createTestModel();
-                TestHarness.runTestSuite(model, testPath);
+                Path reportPath = Path.of("test_suites/WAC-report.json");
+                int workers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1); // Leave a core to the UI
+                TestHarness harness = new TestHarness(() -> createEngineFromString(modelType, time), workers, System.out);
+                SuiteReport report = harness.run(TestHarness.loadSuite(testPath), SearchLimits.ofTime(time));
+                System.out.println(report.summary());
+                if (Files.exists(reportPath)) {
+                    System.out.println(report.diff(SuiteReport.read(reportPath)).summary());
+                }
+                report.write(reportPath);
             } catch (IOException ex) {
                 showErrorAlert("Test Suite Failed", ex.getMessage());
             }
         }).start();
     }
 
-    private EngineModel createTestModel() {
-        long time = timeSpinner.getValue();
-        String modelType = blackModelCombo.getValue();
-        return createEngineFromString(modelType, time);
-    }
-
     private void showErrorAlert(String title, String message) {
         Platform.runLater(() -> {
             Alert alert = new Alert(Alert.AlertType.ERROR);
@@ -38,7 +38,7 @@ public class ChessController implements GameListener, EventListener {
 
     public ChessController() {
         this.boardState = new BoardState();
-        this.gameManager = new GameManager(boardState);
+        this.gameManager = new GameManager(boardState, gameState);
         this.gameManager.addListener(this);
         this.interactionState = new InteractionState();
         this.inputHandler = new InputHandler(this);
@@ -136,7 +136,7 @@ public class ChessController implements GameListener, EventListener {
     }
 
     public void undo() {
-        int move = gameManager.stateManager.undo();
+        int move = gameManager.undo();
         undoRedoRefresh(move);
     }
 
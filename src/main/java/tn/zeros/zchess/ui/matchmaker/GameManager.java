@@ -3,8 +3,9 @@ package tn.zeros.zchess.ui.matchmaker;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
 import javafx.util.Duration;
+import tn.zeros.zchess.core.logic.generation.MoveGenerator;
 import tn.zeros.zchess.core.model.BoardState;
-import tn.zeros.zchess.core.model.MoveUndoInfo;
+import tn.zeros.zchess.core.model.Move;
 import tn.zeros.zchess.core.service.GameStateChecker;
 import tn.zeros.zchess.core.service.MoveExecutor;
 import tn.zeros.zchess.core.service.StateManager;
@@ -13,15 +14,18 @@ import tn.zeros.zchess.engine.models.ModelV1;
 import tn.zeros.zchess.ui.controller.GameListener;
 import tn.zeros.zchess.ui.events.ClockEvent;
 import tn.zeros.zchess.ui.events.EventBus;
+import tn.zeros.zchess.ui.models.GameStateModel;
 import tn.zeros.zchess.ui.util.UIConstants;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static tn.zeros.zchess.ui.util.UIConstants.DEFAULT_SEARCH_TIME_MS;
 
 public class GameManager {
     private final BoardState boardState;
+    private final GameStateModel gameState;
     private final List<GameListener> listeners = new ArrayList<>();
     public StateManager stateManager;
     private EngineModel whiteModel;
@@ -29,9 +33,18 @@ public class GameManager {
     private GameMode gameMode;
     private boolean gameInProgress;
     private boolean modelColor;
+    private int modelMoveGeneration; // Bumped to discard the result of a cancelled model move
 
-    public GameManager(BoardState boardState) {
+    // Pondering: after its move, the model searches the reply it expects while the human thinks
+    private boolean ponderEnabled = true;
+    private EngineModel ponderModel;
+    private int ponderMove = Move.NULL_MOVE;
+    private CompletableFuture<Integer> ponderSearch;
+    private CompletableFuture<Integer> ponderHitSearch; // Ponder search that became the model's next move
+
+    public GameManager(BoardState boardState, GameStateModel gameState) {
         this.boardState = boardState;
+        this.gameState = gameState;
         this.stateManager = new StateManager(boardState);
         // Default game mode
         this.gameMode = GameMode.HUMAN_VS_MODEL;
@@ -41,6 +54,7 @@ public class GameManager {
     }
 
     public void setGameMode(GameMode mode, EngineModel whiteModel, EngineModel blackModel, boolean modelColor) {
+        cancelModelMove();
         this.gameMode = mode;
         this.whiteModel = whiteModel;
         this.blackModel = blackModel;
@@ -57,9 +71,10 @@ public class GameManager {
         if (isGameOver()) return;
 
         boolean wasWhiteMove = boardState.isWhiteToMove();
+        resolvePonder(move);
 
-        MoveUndoInfo undoInfo = MoveExecutor.makeMove(boardState, move);
-        stateManager.saveState(undoInfo);
+        MoveExecutor.makeMove(boardState, move);
+        stateManager.saveState(move);
         notifyMoveExecuted(move);
 
         // Notify about time increment
@@ -81,11 +96,17 @@ public class GameManager {
         }
     }
 
+    public int undo() {
+        cancelModelMove();
+        return stateManager.undo();
+    }
+
     public void resetStateManager(BoardState newState) {
+        cancelModelMove();
         stateManager = new StateManager(newState);
         whiteModel.reset();
         blackModel.reset();
-        newState.clearPositionCounts();
+        newState.clearHistory();
     }
 
     public void checkForModelMove() {
@@ -95,20 +116,90 @@ public class GameManager {
         }
     }
 
+    /**
+     * Stops the model move in progress, if any, and discards its result.
+     */
+    public void cancelModelMove() {
+        modelMoveGeneration++;
+        ponderSearch = null;
+        ponderHitSearch = null;
+        ponderMove = Move.NULL_MOVE;
+        whiteModel.stop();
+        blackModel.stop();
+    }
+
+    public void setPonderEnabled(boolean ponderEnabled) {
+        this.ponderEnabled = ponderEnabled;
+        if (!ponderEnabled) stopPondering();
+    }
+
+    /**
+     * Starts a background search on the reply predicted by the model's principal variation, so the
+     * model keeps thinking on the human's time.
+     */
+    private void startPondering(EngineModel model, int playedMove) {
+        if (!ponderEnabled || gameMode != GameMode.HUMAN_VS_MODEL || isGameOver() || shouldModelPlay()) return;
+
+        int[] pv = model.getPrincipalVariation();
+        if (pv.length < 2 || pv[0] != playedMove) return;
+        int expectedReply = pv[1];
+        if (!MoveGenerator.generateAllMoves(boardState, false).toList().contains(expectedReply)) return;
+
+        BoardState ponderState = boardState.clone();
+        MoveExecutor.makeMove(ponderState, expectedReply);
+        Duration clock = modelColor ? gameState.whiteTimeProperty().get() : gameState.blackTimeProperty().get();
+        ponderModel = model;
+        ponderMove = expectedReply;
+        ponderSearch = model.ponder(ponderState, (long) clock.toMillis(), (long) UIConstants.TIME_INCREMENT.toMillis());
+    }
+
+    // On a ponder hit the running search becomes the model's move search, on a miss it is aborted
+    private void resolvePonder(int move) {
+        if (ponderSearch == null) return;
+        if (move == ponderMove) {
+            ponderModel.ponderHit();
+            ponderHitSearch = ponderSearch;
+            ponderSearch = null;
+            ponderMove = Move.NULL_MOVE;
+        } else {
+            stopPondering();
+        }
+    }
+
+    private void stopPondering() {
+        if (ponderSearch == null) return;
+        ponderModel.stop();
+        ponderSearch = null;
+        ponderMove = Move.NULL_MOVE;
+    }
+
     private void runModelMoveTask() {
+        int generation = modelMoveGeneration;
+        EngineModel currentModel = boardState.isWhiteToMove() ? whiteModel : blackModel;
+        BoardState snapshot = boardState.clone(); // The board may change while the model is thinking
+        Duration clock = boardState.isWhiteToMove() ? gameState.whiteTimeProperty().get() : gameState.blackTimeProperty().get();
+        // Started here rather than on the task's thread, so that a cancellation right after still stops it
+        CompletableFuture<Integer> search = ponderHitSearch != null
+                ? ponderHitSearch // Already searching this position since the model's last move
+                : currentModel.generateMoveAsync(snapshot, (long) clock.toMillis(), (long) UIConstants.TIME_INCREMENT.toMillis());
+        ponderHitSearch = null;
         Task<Integer> task = new Task<>() {
             @Override
             protected Integer call() {
-                EngineModel currentModel = boardState.isWhiteToMove() ? whiteModel : blackModel;
                 // This call might be time-consuming.
-                return currentModel.generateMove(boardState);
+                return search.join();
             }
 
             @Override
             protected void succeeded() {
                 int bestMove = getValue();
                 // Update the GUI (and game state) on the JavaFX Application Thread.
-                Platform.runLater(() -> executeMove(bestMove));
+                Platform.runLater(() -> {
+                    if (generation == modelMoveGeneration) {
+                        executeMove(bestMove);
+                        startPondering(currentModel, bestMove);
+                    }
+                });
             }
 
             @Override
@@ -142,6 +233,7 @@ public class GameManager {
 
     public void setGameInProgress(boolean gameInProgress) {
         this.gameInProgress = gameInProgress;
+        if (!gameInProgress) stopPondering();
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,118 @@
+package tn.zeros.zchess.core.logic;
+
+import org.junit.jupiter.api.Test;
+import tn.zeros.zchess.core.logic.generation.MoveGenerator;
+import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.core.service.FenService;
+import tn.zeros.zchess.core.service.GameStateChecker;
+import tn.zeros.zchess.core.service.MoveExecutor;
+import tn.zeros.zchess.core.util.ChessConstants;
+import tn.zeros.zchess.engine.evaluate.EvaluatorType;
+import tn.zeros.zchess.engine.search.SearchLimits;
+import tn.zeros.zchess.engine.search.SearchServiceV1;
+import tn.zeros.zchess.engine.search.SearchUtils;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AllocationTest {
+    private static final String[] FENS = {
+            ChessConstants.DEFAULT_FEN,
+            ChessConstants.POSITION_2_FEN,
+            ChessConstants.POSITION_3_FEN,
+            ChessConstants.POSITION_4_FEN,
+            ChessConstants.POSITION_5_FEN
+    };
+    private static final int ITERATIONS = 2_000;
+    private static final int SEARCH_DEPTH = 3;
+    private static final int SEARCH_ITERATIONS = 200; // A search iteration covers thousands of nodes
+
+    private final com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void testMoveGenerationDoesNotAllocate() {
+        assertTrue(threadBean.isThreadAllocatedMemorySupported());
+        BoardState[] states = new BoardState[FENS.length];
+        for (int i = 0; i < FENS.length; i++) {
+            states[i] = new BoardState();
+            FenService.parseFEN(FENS[i], states[i]);
+        }
+        MoveGenerator.MoveList moves = new MoveGenerator.MoveList(256);
+        MoveGenerator.MoveList scratch = new MoveGenerator.MoveList(256);
+
+        Runnable generation = () -> {
+            for (BoardState state : states) {
+                MoveGenerator.generateMoves(state, moves, MoveGenerator.ALL);
+                MoveGenerator.generateMoves(state, moves, MoveGenerator.CAPTURES);
+                MoveGenerator.generateMoves(state, moves, MoveGenerator.QUIETS);
+                MoveGenerator.isLegalMove(state, moves.moves[0], scratch);
+            }
+        };
+
+        assertEquals(0, allocatedBytesPerIteration(generation), "Move generation allocated on the heap");
+    }
+
+    @Test
+    void testMakeUnmakeDoesNotAllocate() {
+        BoardState state = new BoardState();
+        FenService.parseFEN(ChessConstants.POSITION_2_FEN, state);
+        MoveGenerator.MoveList[] moveLists = new MoveGenerator.MoveList[3];
+        for (int i = 0; i < moveLists.length; i++) moveLists[i] = new MoveGenerator.MoveList(256);
+
+        assertEquals(0, allocatedBytesPerIteration(() -> perft(state, 2, moveLists)),
+                "Make/unmake or repetition checks allocated on the heap");
+    }
+
+    @Test
+    void testSearchDoesNotAllocate() {
+        BoardState[] states = new BoardState[FENS.length];
+        for (int i = 0; i < FENS.length; i++) {
+            states[i] = FenService.parseFEN(FENS[i], new BoardState());
+        }
+        // A small table so clearing it between searches is cheap; every search then starts cold
+        SearchServiceV1 searchService = new SearchServiceV1(SearchLimits.NO_LIMIT, EvaluatorType.CLASSICAL, 1);
+
+        // Fixed-depth searches through the MovePicker, SearchStack, PV table and quiescence search
+        Runnable search = () -> {
+            for (BoardState state : states) {
+                searchService.clear();
+                searchService.alphaBetaPrune(SEARCH_DEPTH, SearchUtils.MIN_EVAL, SearchUtils.MAX_EVAL, state, 0);
+            }
+        };
+
+        assertEquals(0, allocatedBytesPerIteration(search, SEARCH_ITERATIONS), "Search allocated on the heap");
+    }
+
+    private static long perft(BoardState state, int depth, MoveGenerator.MoveList[] moveLists) {
+        MoveGenerator.MoveList moves = moveLists[depth];
+        MoveGenerator.generateMoves(state, moves, MoveGenerator.ALL);
+        if (depth == 1) return moves.size;
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size; i++) {
+            MoveExecutor.makeMove(state, moves.moves[i]);
+            if (!GameStateChecker.isRepetition(state, depth)) {
+                nodes += perft(state, depth - 1, moveLists);
+            }
+            MoveExecutor.unmakeMove(state);
+        }
+        return nodes;
+    }
+
+    // Any per-call allocation costs at least 16 bytes per iteration; stray JIT/runtime bytes average out to 0
+    long allocatedBytesPerIteration(Runnable work) {
+        return allocatedBytesPerIteration(work, ITERATIONS);
+    }
+
+    long allocatedBytesPerIteration(Runnable work, int iterations) {
+        for (int i = 0; i < iterations; i++) work.run(); // Warm up so JIT compilation isn't measured
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) work.run();
+        long after = threadBean.getThreadAllocatedBytes(threadId);
+        return (after - before) / iterations;
+    }
+}
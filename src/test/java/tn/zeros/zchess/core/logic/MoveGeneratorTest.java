@@ -0,0 +1,64 @@
+package tn.zeros.zchess.core.logic;
+
+import org.junit.jupiter.api.Test;
+import tn.zeros.zchess.core.logic.generation.MoveGenerator;
+import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.core.model.Move;
+import tn.zeros.zchess.core.model.Piece;
+import tn.zeros.zchess.core.service.FenService;
+import tn.zeros.zchess.core.util.ChessConstants;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveGeneratorTest {
+    private static final String[] FENS = {
+            ChessConstants.DEFAULT_FEN,
+            ChessConstants.POSITION_2_FEN,
+            ChessConstants.POSITION_3_FEN,
+            ChessConstants.POSITION_4_FEN,
+            ChessConstants.POSITION_5_FEN
+    };
+
+    @Test
+    void testCapturesAndQuietsPartitionAllMoves() {
+        MoveGenerator.MoveList moves = new MoveGenerator.MoveList(256);
+        for (String fen : FENS) {
+            BoardState state = new BoardState();
+            FenService.parseFEN(fen, state);
+
+            MoveGenerator.generateMoves(state, moves, MoveGenerator.CAPTURES);
+            Set<Integer> captures = new HashSet<>(moves.toList());
+            MoveGenerator.generateMoves(state, moves, MoveGenerator.QUIETS);
+            Set<Integer> quiets = new HashSet<>(moves.toList());
+            MoveGenerator.generateMoves(state, moves, MoveGenerator.ALL);
+            Set<Integer> all = new HashSet<>(moves.toList());
+
+            captures.forEach(move -> assertNotEquals(Piece.NONE, Move.getCapturedPiece(move)));
+            quiets.forEach(move -> assertEquals(Piece.NONE, Move.getCapturedPiece(move)));
+            assertEquals(all.size(), captures.size() + quiets.size(), "Overlapping stages for FEN: " + fen);
+            captures.addAll(quiets);
+            assertEquals(all, captures, "Stages don't cover all moves for FEN: " + fen);
+        }
+    }
+
+    @Test
+    void testIsLegalMove() {
+        MoveGenerator.MoveList scratch = new MoveGenerator.MoveList(256);
+        BoardState state = new BoardState();
+        FenService.parseFEN(ChessConstants.POSITION_2_FEN, state);
+        List<Integer> legalMoves = MoveGenerator.generateAllMoves(state, false).toList();
+        legalMoves.forEach(move -> assertTrue(MoveGenerator.isLegalMove(state, move, scratch)));
+
+        // Legal moves from the other positions are not legal here
+        BoardState other = new BoardState();
+        FenService.parseFEN(ChessConstants.POSITION_4_FEN, other);
+        for (int move : MoveGenerator.generateAllMoves(other, false).toList()) {
+            assertEquals(legalMoves.contains(move), MoveGenerator.isLegalMove(state, move, scratch));
+        }
+        assertFalse(MoveGenerator.isLegalMove(state, Move.NULL_MOVE, scratch));
+    }
+}
@@ -1,7 +1,12 @@
 package tn.zeros.zchess.core.model;
 
 import org.junit.jupiter.api.Test;
+import tn.zeros.zchess.core.logic.generation.MoveGenerator;
 import tn.zeros.zchess.core.service.FenService;
+import tn.zeros.zchess.core.service.MoveExecutor;
+import tn.zeros.zchess.core.util.ChessConstants;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class ZobristTest {
     @Test
@@ -16,4 +21,44 @@ public class ZobristTest {
 
         assert key1 == key2;
     }
+
+    @Test
+    public void testUnmakeMoveRestoresKey() {
+        BoardState state = new BoardState();
+        FenService.parseFEN(ChessConstants.POSITION_2_FEN, state);
+        String fen = FenService.generateFEN(state);
+        long key = state.getZobristKey();
+        long pawnKey = state.getPawnKey();
+
+        for (int move : MoveGenerator.generateAllMoves(state, false).toList()) {
+            MoveExecutor.makeMove(state, move);
+            BoardState fresh = new BoardState();
+            FenService.parseFEN(FenService.generateFEN(state), fresh);
+            assertEquals(fresh.getZobristKey(), state.getZobristKey(), "Incremental key differs after " + move);
+            assertEquals(fresh.getPawnKey(), state.getPawnKey(), "Incremental pawn key differs after " + move);
+
+            assertEquals(move, MoveExecutor.unmakeMove(state));
+            assertEquals(fen, FenService.generateFEN(state));
+            assertEquals(key, state.getZobristKey(), "Key not restored after unmaking " + move);
+            assertEquals(pawnKey, state.getPawnKey(), "Pawn key not restored after unmaking " + move);
+        }
+        assertEquals(0, state.getHistoryPly());
+    }
+
+    @Test
+    public void testNullMoveRestoresState() {
+        BoardState state = FenService.parseFEN("rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3", new BoardState());
+        String fen = FenService.generateFEN(state);
+        long key = state.getZobristKey();
+
+        MoveExecutor.makeNullMove(state);
+        BoardState fresh = FenService.parseFEN("rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR b KQkq - 0 3", new BoardState());
+        assertEquals(fresh.getZobristKey(), state.getZobristKey(), "Null move must flip the side and clear en passant");
+        assertEquals(-1, state.getEnPassantSquare());
+
+        MoveExecutor.unmakeNullMove(state);
+        assertEquals(fen, FenService.generateFEN(state));
+        assertEquals(key, state.getZobristKey());
+        assertEquals(0, state.getHistoryPly());
+    }
 }
@@ -0,0 +1,62 @@
+package tn.zeros.zchess.core.service;
+
+import org.junit.jupiter.api.Test;
+import tn.zeros.zchess.core.logic.generation.MoveGenerator;
+import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.core.util.ChessConstants;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameStateCheckerTest {
+    private static final String[] KNIGHT_SHUFFLE = {"g1f3", "g8f6", "f3g1", "f6g8"};
+
+    @Test
+    void testRepetition() {
+        BoardState state = new BoardState();
+        FenService.parseFEN(ChessConstants.DEFAULT_FEN, state);
+
+        playMoves(state, KNIGHT_SHUFFLE);
+        assertFalse(GameStateChecker.isThreefoldRepetition(state), "Second occurrence is not threefold");
+        assertFalse(GameStateChecker.isRepetition(state, 3), "Earlier occurrence is outside the search");
+        assertTrue(GameStateChecker.isRepetition(state, 4), "Repetition inside the search is a draw");
+
+        playMoves(state, KNIGHT_SHUFFLE);
+        assertTrue(GameStateChecker.isThreefoldRepetition(state));
+        assertTrue(GameStateChecker.isRepetition(state, 0));
+
+        MoveExecutor.unmakeMove(state);
+        assertFalse(GameStateChecker.isThreefoldRepetition(state));
+    }
+
+    @Test
+    void testIrreversibleMoveResetsRepetition() {
+        BoardState state = new BoardState();
+        FenService.parseFEN(ChessConstants.DEFAULT_FEN, state);
+
+        playMoves(state, KNIGHT_SHUFFLE);
+        playMoves(state, "e2e4", "e7e5");
+        playMoves(state, KNIGHT_SHUFFLE);
+        assertFalse(GameStateChecker.isThreefoldRepetition(state));
+        playMoves(state, KNIGHT_SHUFFLE);
+        playMoves(state, KNIGHT_SHUFFLE); // The position right after e7e5 differs by its en passant square
+        assertTrue(GameStateChecker.isThreefoldRepetition(state));
+        assertEquals(12, state.getHalfMoveClock());
+
+        BoardState other = new BoardState();
+        FenService.parseFEN(ChessConstants.DEFAULT_FEN, other);
+        playMoves(other, KNIGHT_SHUFFLE);
+        playMoves(other, "e2e4", "e7e5");
+        playMoves(other, KNIGHT_SHUFFLE);
+        assertFalse(GameStateChecker.isThreefoldRepetition(other), "Positions before the pawn moves can't repeat");
+    }
+
+    private static void playMoves(BoardState state, String... uciMoves) {
+        for (String uci : uciMoves) {
+            int move = MoveGenerator.generateAllMoves(state, false).toList().stream()
+                    .filter(m -> ChessConstants.moveToUCI(m).equals(uci))
+                    .findFirst()
+                    .orElseThrow();
+            MoveExecutor.makeMove(state, move);
+        }
+    }
+}
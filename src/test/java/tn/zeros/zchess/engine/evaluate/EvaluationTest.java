@@ -1,8 +1,17 @@
 package tn.zeros.zchess.engine.evaluate;
 
 import org.junit.jupiter.api.Test;
+import tn.zeros.zchess.core.logic.generation.MoveGenerator;
 import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.core.model.Piece;
 import tn.zeros.zchess.core.service.FenService;
+import tn.zeros.zchess.core.service.MoveExecutor;
+import tn.zeros.zchess.core.util.ChessConstants;
+import tn.zeros.zchess.engine.search.SearchServiceV1;
+import tn.zeros.zchess.engine.search.SearchLimits;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class EvaluationTest {
     @Test
@@ -12,4 +21,71 @@ public class EvaluationTest {
         int evaluation = EvaluationService.evaluate(state);
         System.out.println("Evaluation: " + evaluation);
     }
+
+    @Test
+    public void testStartingPositionIsBalanced() {
+        BoardState state = new BoardState();
+        assertEquals(0, EvaluationService.evaluate(state));
+        assertEquals(24, state.getPhase());
+    }
+
+    @Test
+    public void testMirroredPositionsEvaluateEqually() {
+        BoardState state = new BoardState();
+        FenService.parseFEN(ChessConstants.POSITION_4_FEN, state);
+        BoardState mirrored = new BoardState();
+        FenService.parseFEN("r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R b KQ - 0 1", mirrored);
+
+        assertEquals(EvaluationService.evaluate(state), EvaluationService.evaluate(mirrored));
+    }
+
+    @Test
+    public void testIncrementalTermsMatchFreshBoard() {
+        BoardState state = new BoardState();
+        FenService.parseFEN(ChessConstants.POSITION_2_FEN, state);
+
+        // Covers castling, en passant, promotions and captures across the two plies
+        for (int move : MoveGenerator.generateAllMoves(state, false).toList()) {
+            MoveExecutor.makeMove(state, move);
+            for (int reply : MoveGenerator.generateAllMoves(state, false).toList()) {
+                MoveExecutor.makeMove(state, reply);
+                assertSameTerms(state);
+                MoveExecutor.unmakeMove(state);
+            }
+            assertSameTerms(state);
+            MoveExecutor.unmakeMove(state);
+        }
+    }
+
+    @Test
+    public void testPawnStructurePenalties() {
+        PawnHashTable table = new PawnHashTable(16);
+        BoardState healthy = FenService.parseFEN("4k3/8/8/8/8/8/PPP5/4K3 w - - 0 1", new BoardState());
+        BoardState doubledIsolated = FenService.parseFEN("4k3/8/8/8/8/P7/P1P5/4K3 w - - 0 1", new BoardState());
+
+        int healthyScore = table.getEndgameScore(table.probe(healthy));
+        int weakScore = table.getEndgameScore(table.probe(doubledIsolated));
+        assertTrue(weakScore < healthyScore, "Doubled, isolated pawns should score lower");
+        assertEquals(Long.bitCount(healthy.getPieces(Piece.PAWN, Piece.WHITE)),
+                Long.bitCount(table.getPassedPawns(table.probe(healthy), true)), "Unopposed pawns are passed");
+    }
+
+    @Test
+    public void testPawnHashHitRate() {
+        BoardState state = FenService.parseFEN(ChessConstants.POSITION_2_FEN, new BoardState());
+        PawnHashTable table = EvaluationService.getPawnHashTable();
+        table.clear();
+        // A fixed depth keeps the rate independent of the machine, and deep enough that cold misses are rare
+        new SearchServiceV1(SearchLimits.NO_LIMIT).startSearch(state, SearchLimits.ofDepth(10));
+        assertTrue(table.getHitRate() > 0.95, "Pawn hash hit rate: " + table.getHitRate());
+    }
+
+    private static void assertSameTerms(BoardState state) {
+        BoardState fresh = FenService.parseFEN(FenService.generateFEN(state), new BoardState());
+        assertEquals(fresh.getMidgameScore(), state.getMidgameScore());
+        assertEquals(fresh.getEndgameScore(), state.getEndgameScore());
+        assertEquals(fresh.getPhase(), state.getPhase());
+        assertEquals(fresh.getMaterial(true), state.getMaterial(true));
+        assertEquals(fresh.getMaterial(false), state.getMaterial(false));
+    }
 }
@@ -0,0 +1,83 @@
+package tn.zeros.zchess.engine.evaluate.nnue;
+
+import org.junit.jupiter.api.Test;
+import tn.zeros.zchess.core.logic.generation.MoveGenerator;
+import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.core.model.Move;
+import tn.zeros.zchess.core.service.FenService;
+import tn.zeros.zchess.core.service.MoveExecutor;
+import tn.zeros.zchess.core.util.ChessConstants;
+import tn.zeros.zchess.engine.evaluate.EvaluatorType;
+import tn.zeros.zchess.engine.search.SearchServiceV1;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NnueEvaluatorTest {
+    private final NnueNetwork network = NnueNetwork.getDefault();
+
+    @Test
+    public void testStartingPositionIsBalanced() {
+        NnueEvaluator evaluator = new NnueEvaluator(network);
+        BoardState state = new BoardState();
+        evaluator.attach(state);
+        assertEquals(0, evaluator.evaluate(state));
+    }
+
+    @Test
+    public void testMirroredPositionsEvaluateEqually() {
+        BoardState state = FenService.parseFEN(ChessConstants.POSITION_4_FEN, new BoardState());
+        BoardState mirrored = FenService.parseFEN("r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R b KQ - 0 1", new BoardState());
+
+        assertEquals(freshEvaluation(state), freshEvaluation(mirrored));
+    }
+
+    @Test
+    public void testIncrementalAccumulatorsMatchRefresh() {
+        NnueEvaluator evaluator = new NnueEvaluator(network);
+        BoardState state = FenService.parseFEN(ChessConstants.POSITION_2_FEN, new BoardState());
+        evaluator.attach(state);
+
+        // Covers castling, en passant, promotions and captures, evaluating on the way back up as well
+        for (int move : MoveGenerator.generateAllMoves(state, false).toList()) {
+            MoveExecutor.makeMove(state, move);
+            for (int reply : MoveGenerator.generateAllMoves(state, false).toList()) {
+                MoveExecutor.makeMove(state, reply);
+                assertEquals(freshEvaluation(state), evaluator.evaluate(state), Move.toAlgebraic(reply));
+                MoveExecutor.unmakeMove(state);
+            }
+            assertEquals(freshEvaluation(state), evaluator.evaluate(state), Move.toAlgebraic(move));
+            MoveExecutor.unmakeMove(state);
+        }
+        assertEquals(freshEvaluation(state), evaluator.evaluate(state));
+    }
+
+    @Test
+    public void testNetworkRoundTrip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        network.write(out);
+        NnueNetwork loaded = NnueNetwork.load(new ByteArrayInputStream(out.toByteArray()));
+
+        BoardState state = FenService.parseFEN(ChessConstants.POSITION_3_FEN, new BoardState());
+        NnueEvaluator evaluator = new NnueEvaluator(loaded);
+        evaluator.attach(state);
+        assertEquals(freshEvaluation(state), evaluator.evaluate(state));
+    }
+
+    @Test
+    public void testNnueSearchReturnsLegalMove() {
+        BoardState state = FenService.parseFEN(ChessConstants.POSITION_2_FEN, new BoardState());
+        int move = new SearchServiceV1(300, EvaluatorType.NNUE).startSearch(state);
+        assertTrue(MoveGenerator.generateAllMoves(state, false).toList().contains(move));
+    }
+
+    private int freshEvaluation(BoardState state) {
+        BoardState copy = FenService.parseFEN(FenService.generateFEN(state), new BoardState());
+        NnueEvaluator evaluator = new NnueEvaluator(network);
+        evaluator.attach(copy);
+        return evaluator.evaluate(copy);
+    }
+}
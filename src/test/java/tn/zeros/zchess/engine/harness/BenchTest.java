@@ -0,0 +1,17 @@
+package tn.zeros.zchess.engine.harness;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BenchTest {
+    @Test
+    public void testNodeCountIsDeterministic() {
+        Bench.Result first = Bench.run(4, null);
+        Bench.Result second = Bench.run(4, null);
+
+        assertTrue(first.nodes() > 0);
+        assertEquals(first.nodes(), second.nodes(), "Bench signature must not depend on earlier searches or timing");
+    }
+}
@@ -0,0 +1,55 @@
+package tn.zeros.zchess.engine.harness;
+
+import org.junit.jupiter.api.Test;
+import tn.zeros.zchess.core.util.ChessConstants;
+import tn.zeros.zchess.engine.models.ModelV1;
+import tn.zeros.zchess.engine.models.RandomMoveModel;
+import tn.zeros.zchess.engine.search.SearchLimits;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MatchRunnerTest {
+    @Test
+    public void testPgnOpenings() {
+        String pgn = """
+                [Event "Ruy Lopez"]
+                [Result "*"]
+
+                1. e4 e5 2. Nf3 {main line} Nc6 (2... d6 3. d4) 3. Bb5 *
+
+                [Event "From FEN"]
+                [FEN "4k3/8/8/8/8/8/8/R3K2R w KQ - 0 1"]
+
+                1. O-O Kd7 1/2-1/2
+                """;
+        List<String> openings = MatchRunner.parsePgn(pgn);
+
+        assertEquals(List.of(
+                "r1bqkbnr/pppp1ppp/2n5/1B2p3/4P3/5N2/PPPP1PPP/RNBQK2R b KQkq - 3 3",
+                "8/3k4/8/8/8/8/8/R4RK1 w - - 2 2"
+        ), openings);
+    }
+
+    @Test
+    public void testSprtDecisions() {
+        Sprt sprt = new Sprt(0, 10, 0.05, 0.05);
+        assertEquals(Sprt.Decision.CONTINUE, sprt.decide(10, 10, 10));
+        assertEquals(Sprt.Decision.ACCEPT_H1, sprt.decide(700, 400, 500));
+        assertEquals(Sprt.Decision.ACCEPT_H0, sprt.decide(500, 400, 700));
+        assertEquals(0, Sprt.elo(0.5), 1e-9);
+    }
+
+    @Test
+    public void testMatchStopsOnceSprtDecides() {
+        MatchRunner runner = new MatchRunner(() -> new ModelV1(SearchLimits.NO_LIMIT), RandomMoveModel::new,
+                1000, 10, 2, new Sprt(0, 200, 0.05, 0.05), null);
+        MatchRunner.MatchResult result = runner.run(List.of(ChessConstants.DEFAULT_FEN), 100);
+
+        assertEquals(Sprt.Decision.ACCEPT_H1, result.decision());
+        assertTrue(result.games() < 100, "SPRT should stop the match early");
+        assertTrue(result.score() > 0.9);
+    }
+}
@@ -0,0 +1,73 @@
+package tn.zeros.zchess.engine.harness;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tn.zeros.zchess.core.logic.generation.MoveGenerator;
+import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.core.service.FenService;
+import tn.zeros.zchess.core.util.ChessConstants;
+import tn.zeros.zchess.engine.models.ModelV1;
+import tn.zeros.zchess.engine.search.SearchLimits;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestHarnessTest {
+    private static final List<TestPosition> SUITE = List.of(
+            TestPosition.fromEpd("2rr3k/pp3pp1/1nnqbN1p/3pN3/2pP4/2P3Q1/PPB4P/R4RK1 w - - bm Qg6; id \"WAC.001\";"),
+            TestPosition.fromEpd("5rk1/1ppb3p/p1pb4/6q1/3P1p1r/2P1R2P/PP1BQ1P1/5RKN w - - bm Rg3; id \"WAC.003\";"),
+            TestPosition.fromEpd("r1bq2rk/pp3pbp/2p1p1pQ/7P/3P4/2PB1N2/PP3PPR/2KR4 w - - bm Qxh7+; id \"WAC.004\";")
+    );
+
+    @Test
+    public void testSanMatching() {
+        BoardState state = FenService.parseFEN("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", new BoardState());
+        assertTrue(TestPosition.matchesSan(move(state, "e1g1"), "O-O"));
+        assertFalse(TestPosition.matchesSan(move(state, "e1c1"), "O-O"));
+
+        state = FenService.parseFEN("4k3/8/8/8/8/8/4K3/R6R w - - 0 1", new BoardState());
+        assertTrue(TestPosition.matchesSan(move(state, "a1d1"), "Rad1"));
+        assertFalse(TestPosition.matchesSan(move(state, "h1d1"), "Rad1"));
+
+        state = FenService.parseFEN(ChessConstants.DEFAULT_FEN, new BoardState());
+        assertTrue(TestPosition.matchesSan(move(state, "b2b4"), "b4"));
+        assertFalse(TestPosition.matchesSan(move(state, "b2b3"), "b4"));
+        assertTrue(TestPosition.matchesSan(move(state, "g1f3"), "Nf3+"));
+    }
+
+    @Test
+    public void testParallelRunAndReportRoundTrip(@TempDir Path dir) throws IOException {
+        TestHarness harness = new TestHarness(() -> new ModelV1(SearchLimits.NO_LIMIT), 2, null);
+        SuiteReport report = harness.run(SUITE, SearchLimits.ofDepth(6));
+
+        assertEquals(SUITE.size(), report.results().size());
+        for (int i = 0; i < SUITE.size(); i++) {
+            PositionResult result = report.results().get(i);
+            assertEquals(SUITE.get(i).id(), result.id(), "Results must keep the suite order");
+            assertTrue(result.depth() > 0 && result.depth() <= 6); // Proven mates end the search early
+            assertTrue(result.nodes() > 0);
+            assertEquals(result.solved(), result.timeToSolutionMs() >= 0);
+        }
+
+        for (String file : List.of("report.json", "report.csv")) {
+            Path path = dir.resolve(file);
+            report.write(path);
+            SuiteReport read = SuiteReport.read(path);
+            assertEquals(report, read, file);
+            assertTrue(read.diff(report).newlySolved().isEmpty());
+            assertTrue(read.diff(report).newlyFailed().isEmpty());
+        }
+    }
+
+    private static int move(BoardState state, String uciMove) {
+        return MoveGenerator.generateAllMoves(state, false).toList().stream()
+                .filter(move -> ChessConstants.moveToUCI(move).equals(uciMove))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -1,8 +1,21 @@
 package tn.zeros.zchess.engine.search;
 
 import org.junit.jupiter.api.Test;
+import tn.zeros.zchess.core.logic.generation.MoveGenerator;
 import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.core.model.Move;
 import tn.zeros.zchess.core.service.FenService;
+import tn.zeros.zchess.core.service.MoveExecutor;
+import tn.zeros.zchess.core.util.ChessConstants;
+import tn.zeros.zchess.engine.models.ModelV1;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class SearchTest {
     @Test
@@ -12,4 +25,180 @@ public class SearchTest {
         FenService.parseFEN("8/8/8/8/8/5K2/4R3/5k2 w - - 4 3", state);
         searchService.startSearch(state);
     }
+
+    @Test
+    public void testLazySmpSearch() {
+        SearchServiceV1 searchService = new SearchServiceV1(300);
+        searchService.setThreadCount(4);
+        BoardState state = new BoardState();
+        FenService.parseFEN(ChessConstants.POSITION_2_FEN, state);
+        String fenBefore = FenService.generateFEN(state);
+
+        int move = searchService.startSearch(state);
+
+        assertNotEquals(Move.NULL_MOVE, move);
+        assertTrue(MoveGenerator.generateAllMoves(state, false).toList().contains(move));
+        assertEquals(fenBefore, FenService.generateFEN(state), "Search must leave the root position untouched");
+    }
+
+    @Test
+    public void testNodeLimit() {
+        SearchServiceV1 searchService = new SearchServiceV1(SearchLimits.NO_LIMIT);
+        BoardState state = FenService.parseFEN(ChessConstants.POSITION_2_FEN, new BoardState());
+
+        int move = searchService.startSearch(state, SearchLimits.ofNodes(20_000));
+        assertTrue(MoveGenerator.generateAllMoves(state, false).toList().contains(move));
+        assertEquals(20_000, searchService.getNodeCount());
+    }
+
+    @Test
+    public void testMetricsSumHelperCounters() {
+        SearchServiceV1 searchService = new SearchServiceV1(SearchLimits.NO_LIMIT);
+        searchService.setThreadCount(2);
+        BoardState state = FenService.parseFEN(ChessConstants.POSITION_2_FEN, new BoardState());
+
+        searchService.startSearch(state, SearchLimits.ofDepth(6));
+        SearchMetrics metrics = searchService.getMetrics();
+
+        assertEquals(metrics.getNodes(), searchService.getTotalNodeCount());
+        assertTrue(metrics.getNodes() > searchService.getNodeCount(), "Helper nodes must be included");
+        assertTrue(metrics.getQNodes() > 0 && metrics.getQNodes() < metrics.getNodes());
+        assertTrue(metrics.getFirstMoveCutoffs() > 0 && metrics.getFirstMoveCutoffs() <= metrics.getBetaCutoffs());
+        assertEquals(metrics.getNodes(), metrics.toMap().get("nodes"));
+    }
+
+    @Test
+    public void testStopFromAnotherThread() throws Exception {
+        SearchServiceV1 searchService = new SearchServiceV1(SearchLimits.NO_LIMIT);
+        BoardState state = FenService.parseFEN(ChessConstants.POSITION_2_FEN, new BoardState());
+
+        Thread stopper = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            searchService.stop();
+        });
+        long start = System.nanoTime();
+        stopper.start();
+        int move = searchService.startSearch(state, SearchLimits.infinite());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        stopper.join();
+
+        assertTrue(MoveGenerator.generateAllMoves(state, false).toList().contains(move));
+        assertTrue(elapsedMs < 2000, "Search took " + elapsedMs + " ms to stop");
+    }
+
+    @Test
+    public void testStopLatency() {
+        SearchServiceV1 searchService = new SearchServiceV1(SearchLimits.NO_LIMIT);
+        BoardState state = FenService.parseFEN(ChessConstants.POSITION_2_FEN, new BoardState());
+
+        // Stopped from the search thread itself, so the count excludes the scheduling of a stopping thread
+        long[] nodesAtStop = new long[1];
+        searchService.setInfoListener(info -> {
+            if (info.depth() == 6) {
+                nodesAtStop[0] = searchService.getNodeCount();
+                searchService.stop();
+            }
+        });
+        searchService.startSearch(state, SearchLimits.infinite());
+
+        // Measured in nodes, as a time bound would only test the speed of the machine
+        long nodesAfterStop = searchService.getNodeCount() - nodesAtStop[0];
+        assertTrue(nodesAfterStop <= SearchServiceV1.POLL_INTERVAL_NODES, nodesAfterStop + " nodes searched after the stop");
+    }
+
+    @Test
+    public void testStopBeforeSearchStarts() {
+        SearchServiceV1 searchService = new SearchServiceV1(SearchLimits.NO_LIMIT);
+        BoardState state = FenService.parseFEN(ChessConstants.POSITION_2_FEN, new BoardState());
+
+        long token = searchService.newSearchToken(); // Handed to a search thread that is slow to start
+        searchService.stop();
+        long start = System.nanoTime();
+        int move = searchService.startSearch(state, SearchLimits.ofTime(1500), token);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(MoveGenerator.generateAllMoves(state, false).toList().contains(move));
+        assertTrue(elapsedMs < 500, "A stopped search ran for " + elapsedMs + " ms");
+
+        // A stop with no search pending doesn't affect later searches
+        searchService.startSearch(state, SearchLimits.ofDepth(4));
+        assertEquals(4, searchService.getMetrics().getCurrentDepth());
+    }
+
+    @Test
+    public void testPrincipalVariationIsLegalLine() {
+        SearchServiceV1 searchService = new SearchServiceV1(SearchLimits.NO_LIMIT);
+        BoardState state = FenService.parseFEN(ChessConstants.POSITION_2_FEN, new BoardState());
+        String fenBefore = FenService.generateFEN(state);
+
+        int move = searchService.startSearch(state, SearchLimits.ofDepth(6));
+        int[] pv = searchService.getPrincipalVariation();
+
+        assertTrue(pv.length > 1, "Expected more than the best move");
+        assertEquals(move, pv[0]);
+        for (int pvMove : pv) {
+            assertTrue(MoveGenerator.generateAllMoves(state, false).toList().contains(pvMove),
+                    "Illegal PV move " + Move.toAlgebraic(pvMove));
+            MoveExecutor.makeMove(state, pvMove);
+        }
+        for (int i = 0; i < pv.length; i++) {
+            MoveExecutor.unmakeMove(state);
+        }
+        assertEquals(fenBefore, FenService.generateFEN(state));
+    }
+
+    @Test
+    public void testPonderHitTurnsIntoTimedSearch() throws Exception {
+        SearchServiceV1 searchService = new SearchServiceV1(SearchLimits.NO_LIMIT);
+        BoardState state = FenService.parseFEN(ChessConstants.POSITION_2_FEN, new BoardState());
+
+        searchService.startPondering();
+        CompletableFuture<Integer> search = CompletableFuture.supplyAsync(() -> searchService.startSearch(state, SearchLimits.ofTime(100)));
+        Thread.sleep(300);
+        assertFalse(search.isDone(), "A ponder search must ignore its time limit");
+
+        searchService.ponderHit(); // The time limit has already elapsed since the search started
+        int move = search.get(2, TimeUnit.SECONDS);
+        assertTrue(MoveGenerator.generateAllMoves(state, false).toList().contains(move));
+    }
+
+    @Test
+    public void testPonderHeldUntilStop() throws Exception {
+        SearchServiceV1 searchService = new SearchServiceV1(SearchLimits.NO_LIMIT);
+        BoardState state = FenService.parseFEN("8/8/8/8/8/5K2/4R3/5k2 w - - 4 3", new BoardState());
+
+        searchService.startPondering();
+        CompletableFuture<Integer> search = CompletableFuture.supplyAsync(() -> searchService.startSearch(state, SearchLimits.ofDepth(3)));
+        Thread.sleep(200);
+        assertFalse(search.isDone(), "A finished ponder search must wait for the ponder hit or stop");
+
+        searchService.stop();
+        search.get(2, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testPonderMissBeforeSearchStarts() throws Exception {
+        SearchServiceV1 searchService = new SearchServiceV1(SearchLimits.NO_LIMIT);
+        BoardState state = FenService.parseFEN(ChessConstants.POSITION_2_FEN, new BoardState());
+
+        long token = searchService.newSearchToken();
+        searchService.startPondering();
+        searchService.stop(); // The miss arrives before the ponder thread starts its search
+        long start = System.nanoTime();
+        searchService.startSearch(state, SearchLimits.ofClock(60_000, 0, 0), token);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsedMs < 500, "A missed ponder search ran for " + elapsedMs + " ms");
+
+        // Through the model: the move search after the miss doesn't wait behind the ponder search
+        ModelV1 model = new ModelV1(SearchLimits.NO_LIMIT);
+        CompletableFuture<Integer> ponder = model.ponder(state, 60_000, 0);
+        model.stop();
+        int move = model.generateMoveAsync(state, 2_000, 0).get(2, TimeUnit.SECONDS);
+        assertTrue(MoveGenerator.generateAllMoves(state, false).toList().contains(move));
+        ponder.get(1, TimeUnit.SECONDS);
+    }
 }
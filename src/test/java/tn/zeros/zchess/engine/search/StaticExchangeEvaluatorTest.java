@@ -0,0 +1,58 @@
+package tn.zeros.zchess.engine.search;
+
+import org.junit.jupiter.api.Test;
+import tn.zeros.zchess.core.logic.generation.MoveGenerator;
+import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.core.model.Move;
+import tn.zeros.zchess.core.model.Piece;
+import tn.zeros.zchess.core.service.FenService;
+import tn.zeros.zchess.core.util.ChessConstants;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StaticExchangeEvaluatorTest {
+    @Test
+    public void testExchangeValues() {
+        assertSee("1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - - 0 1", "e1", "e5", 100); // Undefended pawn
+        assertSee("4k3/8/3p4/4p3/3P4/8/8/4K3 w - - 0 1", "d4", "e5", 0); // Pawn trade
+        assertSee("4k3/8/3p4/4p3/8/8/8/4K2Q w - - 0 1", "h1", "e4", 0); // Quiet move, not attacked
+        // Knight takes pawn, then the recaptures on e5 discover the queens behind the rook and bishop
+        assertSee("1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - - 0 1", "d3", "e5", -200);
+    }
+
+    @Test
+    public void testSeeGEAgreesWithSee() {
+        int[] thresholds = {-900, -300, -100, 0, 1, 100, 300, 900};
+        for (String fen : new String[]{ChessConstants.POSITION_2_FEN, ChessConstants.POSITION_4_FEN, ChessConstants.POSITION_5_FEN}) {
+            BoardState state = FenService.parseFEN(fen, new BoardState());
+            for (int move : MoveGenerator.generateAllMoves(state, false).toList()) {
+                if (Move.getCapturedPiece(move) == Piece.NONE) continue;
+                int value = StaticExchangeEvaluator.see(state, move);
+                for (int threshold : thresholds) {
+                    assertEquals(value >= threshold, StaticExchangeEvaluator.seeGE(state, move, threshold),
+                            fen + " " + Move.toAlgebraic(move) + " see=" + value + " threshold=" + threshold);
+                }
+            }
+        }
+    }
+
+    private static void assertSee(String fen, String from, String to, int expected) {
+        BoardState state = FenService.parseFEN(fen, new BoardState());
+        int move = findMove(state, from, to);
+        assertEquals(expected, StaticExchangeEvaluator.see(state, move));
+        assertTrue(StaticExchangeEvaluator.seeGE(state, move, expected));
+        assertFalse(StaticExchangeEvaluator.seeGE(state, move, expected + 1));
+    }
+
+    private static int findMove(BoardState state, String from, String to) {
+        for (int move : MoveGenerator.generateAllMoves(state, false).toList()) {
+            if (FenService.squareToAlgebraic(Move.getFrom(move)).equals(from)
+                    && FenService.squareToAlgebraic(Move.getTo(move)).equals(to)) {
+                return move;
+            }
+        }
+        throw new IllegalArgumentException("No move " + from + to);
+    }
+}
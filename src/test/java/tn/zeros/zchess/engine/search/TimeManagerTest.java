@@ -0,0 +1,76 @@
+package tn.zeros.zchess.engine.search;
+
+import org.junit.jupiter.api.Test;
+import tn.zeros.zchess.core.logic.generation.MoveGenerator;
+import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.core.service.FenService;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TimeManagerTest {
+    @Test
+    public void testLimitsFollowTheClock() {
+        TimeManager blitz = new TimeManager(300_000, 3_000, 0);
+        assertTrue(blitz.getSoftLimitMs() < blitz.getHardLimitMs());
+        assertTrue(blitz.getHardLimitMs() < 300_000 / 4, "Hard limit must keep a reserve: " + blitz.getHardLimitMs());
+
+        TimeManager noIncrement = new TimeManager(300_000, 0, 0);
+        assertTrue(noIncrement.getSoftLimitMs() < blitz.getSoftLimitMs());
+
+        TimeManager lastMove = new TimeManager(10_000, 0, 1);
+        assertTrue(lastMove.getHardLimitMs() > 9_000, "The last move before the time control may use the whole clock");
+
+        TimeManager lowOnTime = new TimeManager(40, 0, 0);
+        assertTrue(lowOnTime.getHardLimitMs() >= 1);
+    }
+
+    @Test
+    public void testStableBestMoveStopsEarly() {
+        TimeManager stable = new TimeManager(60_000, 0, 0);
+        TimeManager unstable = new TimeManager(60_000, 0, 0);
+        long soft = stable.getSoftLimitMs();
+        long elapsed = soft * 3 / 4;
+
+        for (int iteration = 1; iteration <= 6; iteration++) {
+            stable.onIterationComplete(42, 10, elapsed * iteration / 7);
+            unstable.onIterationComplete(iteration, 10, elapsed * iteration / 7);
+        }
+        assertTrue(stable.onIterationComplete(42, 10, elapsed), "Easy move should stop before the soft limit");
+        assertFalse(unstable.onIterationComplete(7, 10, elapsed), "Changing best move should get extra time");
+    }
+
+    @Test
+    public void testDoesNotStartAnIterationItCannotFinish() {
+        TimeManager timeManager = new TimeManager(60_000, 0, 0);
+        long hard = timeManager.getHardLimitMs();
+        // Iterations taking 100, 400 then hard / 2 ms: the next one is predicted to overrun the hard limit
+        assertFalse(timeManager.onIterationComplete(1, 0, 100));
+        assertFalse(timeManager.onIterationComplete(1, 0, 500));
+        assertTrue(timeManager.onIterationComplete(2, -200, 500 + hard / 2));
+    }
+
+    @Test
+    public void testSingleReplyIsPlayedImmediately() {
+        BoardState state = FenService.parseFEN("7k/8/8/8/8/8/6q1/7K w - - 0 1", new BoardState());
+        assertTrue(MoveGenerator.generateAllMoves(state, false).size == 1);
+
+        SearchServiceV1 searchService = new SearchServiceV1(SearchLimits.NO_LIMIT);
+        long start = System.nanoTime();
+        searchService.startSearch(state, SearchLimits.ofClock(60_000, 0, 0));
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 500);
+    }
+
+    @Test
+    public void testClockSearchStaysWithinHardLimit() {
+        BoardState state = FenService.parseFEN("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3", new BoardState());
+        long clockMs = 2_000;
+        long hard = new TimeManager(clockMs, 0, 0).getHardLimitMs();
+
+        SearchServiceV1 searchService = new SearchServiceV1(SearchLimits.NO_LIMIT);
+        long start = System.nanoTime();
+        searchService.startSearch(state, SearchLimits.ofClock(clockMs, 0, 0));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsedMs <= hard + 100, "Searched " + elapsedMs + " ms with a hard limit of " + hard + " ms");
+    }
+}
@@ -0,0 +1,53 @@
+package tn.zeros.zchess.engine.search;
+
+import org.junit.jupiter.api.Test;
+import tn.zeros.zchess.core.model.Move;
+import tn.zeros.zchess.core.model.Piece;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TranspositionTableTest {
+    @Test
+    public void testStoreAndProbeRoundTrip() {
+        TranspositionTable table = new TranspositionTable(1 << 10);
+        int move = Move.createMove(52, 60, Piece.makePiece(Piece.PAWN, Piece.BLACK), Piece.makePiece(Piece.ROOK, Piece.WHITE),
+                Move.FLAG_PROMOTION, Piece.makePiece(Piece.QUEEN, Piece.BLACK));
+        long key = 0x9E3779B97F4A7C15L;
+
+        table.store(key, 42, -SearchUtils.CHECKMATE_EVAL + 7, TTEntryType.UPPER_BOUND, move);
+        long entry = table.probe(key);
+
+        assertEquals(move, TranspositionTable.getMove(entry));
+        assertEquals(-SearchUtils.CHECKMATE_EVAL + 7, TranspositionTable.getScore(entry));
+        assertEquals(42, TranspositionTable.getDepth(entry));
+        assertEquals(TTEntryType.UPPER_BOUND, TranspositionTable.getType(entry));
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(key ^ (1L << 40)));
+    }
+
+    @Test
+    public void testSizeIsRoundedDown() {
+        TranspositionTable table = TranspositionTable.ofMegabytes(3);
+        assertEquals(2 << 20, table.size * TranspositionTable.BYTES_PER_ENTRY, "3 MB is a ceiling, not a minimum");
+
+        assertEquals(1 << 10, new TranspositionTable((1 << 10) + (1 << 9)).size);
+        assertEquals(TranspositionTable.BUCKET_SIZE, new TranspositionTable(1).size);
+    }
+
+    @Test
+    public void testOldGenerationsAreReplacedFirst() {
+        TranspositionTable table = new TranspositionTable(TranspositionTable.BUCKET_SIZE);
+        int move = Move.createMove(12, 28, Piece.makePiece(Piece.PAWN, Piece.WHITE), Piece.NONE, 0, Piece.NONE);
+
+        // Fill the single bucket with deep entries, then age them
+        for (int i = 1; i <= TranspositionTable.BUCKET_SIZE; i++) {
+            table.store((long) i << 32, 20, i, TTEntryType.EXACT, move);
+        }
+        table.newSearch();
+        table.store(1L << 32, 20, 1, TTEntryType.EXACT, move); // Refresh one entry in the new generation
+        table.store(99L << 32, 1, 99, TTEntryType.LOWER_BOUND, move);
+
+        assertEquals(1, TranspositionTable.getScore(table.probe(1L << 32)));
+        assertEquals(99, TranspositionTable.getScore(table.probe(99L << 32)));
+        assertEquals(TranspositionTable.BUCKET_SIZE, table.getOccupancy());
+    }
+}
@@ -0,0 +1,175 @@
+package tn.zeros.zchess.uci;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tn.zeros.zchess.core.model.BoardState;
+import tn.zeros.zchess.core.model.Move;
+import tn.zeros.zchess.core.service.FenService;
+import tn.zeros.zchess.core.service.MoveExecutor;
+import tn.zeros.zchess.core.util.ChessConstants;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UciEngineTest {
+    private PipedOutputStream input;
+    private ByteArrayOutputStream output;
+    private Thread engineThread;
+
+    @BeforeEach
+    public void startEngine() throws IOException {
+        input = new PipedOutputStream();
+        PipedInputStream engineInput = new PipedInputStream(input);
+        output = new ByteArrayOutputStream();
+        UciEngine engine = new UciEngine(engineInput, new PrintStream(output, true, StandardCharsets.UTF_8));
+        engineThread = new Thread(() -> {
+            try {
+                engine.run();
+            } catch (IOException ignored) {
+                // Pipe closed
+            }
+        });
+        engineThread.start();
+    }
+
+    @AfterEach
+    public void quit() throws Exception {
+        send("quit");
+        engineThread.join(TimeUnit.SECONDS.toMillis(5));
+        assertFalse(engineThread.isAlive(), "quit must end the engine");
+    }
+
+    @Test
+    public void testHandshake() throws Exception {
+        send("uci");
+        awaitOutput("uciok");
+        assertTrue(output().contains("id name " + UciEngine.NAME));
+        assertTrue(output().contains("option name Hash type spin"));
+        assertTrue(output().contains("option name Threads type spin"));
+
+        send("setoption name Hash value 16");
+        send("setoption name Threads value 2");
+        send("isready");
+        awaitOutput("readyok");
+        assertFalse(output().contains("info string"), output());
+    }
+
+    @Test
+    public void testGoDepthStreamsInfoAndBestMove() throws Exception {
+        send("position startpos moves e2e4 e7e5");
+        send("go depth 5");
+        String bestMove = awaitBestMove();
+
+        assertTrue(output().contains("info depth 5 score cp "), output());
+        assertTrue(output().contains(" hashfull "), output());
+        assertTrue(output().contains(" pv "), output());
+
+        BoardState state = FenService.parseFEN(ChessConstants.DEFAULT_FEN, new BoardState());
+        MoveExecutor.makeMove(state, UciEngine.parseMove(state, "e2e4"));
+        MoveExecutor.makeMove(state, UciEngine.parseMove(state, "e7e5"));
+        assertNotEquals(Move.NULL_MOVE, UciEngine.parseMove(state, bestMove), "Best move must be legal: " + bestMove);
+    }
+
+    @Test
+    public void testMateScore() throws Exception {
+        send("position fen 8/8/8/8/8/5K2/4R3/5k2 w - - 4 3");
+        send("go depth 6");
+        awaitBestMove();
+        assertTrue(output().contains("score mate 3 "), output()); // Re7 Kg1 Rh7 Kf1 Rh1#
+    }
+
+    @Test
+    public void testMateInOneScore() throws Exception {
+        send("position fen 7k/8/6K1/8/8/8/8/3Q4 w - - 0 1");
+        send("go depth 5");
+        assertTrue(awaitBestMove().startsWith("d1d8"), output());
+        assertTrue(output().contains("info depth 1 score mate 1 "), output());
+        assertFalse(output().contains("score cp 2"), output());
+    }
+
+    @Test
+    public void testGoMateTwo() throws Exception {
+        send("position fen 7k/8/6K1/8/8/8/8/6Q1 w - - 0 1");
+        send("go mate 2");
+        awaitBestMove();
+        assertTrue(output().contains("score mate 2 "), output());
+        assertFalse(output().contains("score mate 1 "), output());
+    }
+
+    @Test
+    public void testStopEndsInfiniteSearch() throws Exception {
+        send("position startpos");
+        send("go infinite");
+        Thread.sleep(200);
+        assertFalse(output().contains("bestmove"), "Infinite search must wait for stop");
+
+        send("stop");
+        awaitBestMove();
+    }
+
+    @Test
+    public void testPerft() throws Exception {
+        send("position startpos");
+        send("go perft 3");
+        awaitOutput("Nodes searched: 8902");
+        assertTrue(output().contains("e2e4: 600"), output());
+    }
+
+    @Test
+    public void testStopEndsPerft() throws Exception {
+        send("position startpos");
+        send("go perft 9");
+        Thread.sleep(200);
+        send("stop");
+        awaitOutput("info string Perft 9 stopped");
+
+        // The stop doesn't leak into the next perft on the same pool
+        send("go perft 2");
+        awaitOutput("Nodes searched: 400");
+    }
+
+    @Test
+    public void testInvalidBenchDepth() throws Exception {
+        send("bench x");
+        send("isready");
+        awaitOutput("readyok");
+        assertTrue(output().contains("info string Invalid bench depth: x"), output());
+    }
+
+    private void send(String command) throws IOException {
+        input.write((command + "\n").getBytes(StandardCharsets.UTF_8));
+        input.flush();
+    }
+
+    private String output() {
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private void awaitOutput(String expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (!output().contains(expected)) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for '" + expected + "' in:\n" + output());
+            Thread.sleep(5);
+        }
+    }
+
+    private String awaitBestMove() throws InterruptedException {
+        awaitOutput("bestmove ");
+        String line = output().substring(output().indexOf("bestmove "));
+        while (!line.contains("\n")) { // The line may still be written
+            Thread.sleep(5);
+            line = output().substring(output().indexOf("bestmove "));
+        }
+        return line.split("\\s+")[1];
+    }
+}
@@ -0,0 +1,32 @@
+package tn.zeros.zchess.engine.evaluate.nnue;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link OutputKernel} using the incubating Vector API. Only compiled with {@code -Pvector}, and loaded
+ * reflectively once the module is known to be present at runtime.
+ */
+final class VectorOutputKernel implements OutputKernel {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public int forward(int[] us, int[] them, int[] weights, int hiddenSize) {
+        IntVector sum = IntVector.zero(SPECIES);
+        int bound = SPECIES.loopBound(hiddenSize);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            IntVector ours = IntVector.fromArray(SPECIES, us, i).max(0).min(NnueNetwork.QA);
+            IntVector theirs = IntVector.fromArray(SPECIES, them, i).max(0).min(NnueNetwork.QA);
+            sum = sum.add(ours.mul(IntVector.fromArray(SPECIES, weights, i)))
+                    .add(theirs.mul(IntVector.fromArray(SPECIES, weights, hiddenSize + i)));
+        }
+        int result = sum.reduceLanes(VectorOperators.ADD);
+        for (; i < hiddenSize; i++) {
+            result += Math.min(Math.max(us[i], 0), NnueNetwork.QA) * weights[i];
+            result += Math.min(Math.max(them[i], 0), NnueNetwork.QA) * weights[hiddenSize + i];
+        }
+        return result;
+    }
+}